@@ -1,16 +1,20 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingIdsDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.io.IOException;
 import java.util.Map;
 
 @Service
@@ -18,11 +22,15 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl,
+                         @Value("${shareit-server.pass-through:false}") boolean passThrough,
+                         RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory) {
         super(
                 builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                passThrough
         );
     }
 
@@ -53,6 +61,14 @@ public class BookingClient extends BaseClient {
 
     }
 
+    public ResponseEntity<Object> patchBookings(long userId, Boolean approved, BookingIdsDto bookingIdsDto) {
+        return patch("?approved={approved}", userId, Map.of("approved", approved), bookingIdsDto);
+    }
+
+    public void exportBookings(long userId, HttpServletResponse response) throws IOException {
+        getStream("/export", userId, MediaType.APPLICATION_NDJSON, response);
+    }
+
     public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
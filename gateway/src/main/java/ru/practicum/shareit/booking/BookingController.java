@@ -1,18 +1,23 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.ValidationException;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingIdsDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
+import java.io.IOException;
+
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -41,6 +46,14 @@ public class BookingController {
         return bookingClient.getBookings(userId, state, from, size);
     }
 
+    // История выгружается потоком: шлюз пересылает NDJSON сервера, не разбирая его
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportBookings(@RequestHeader(USER_HEADER) long userId,
+                               HttpServletResponse response) throws IOException {
+        log.info("Export bookings, userId={}", userId);
+        bookingClient.exportBookings(userId, response);
+    }
+
     @GetMapping("/owner")
     public ResponseEntity<Object> getBookingsForOwnerItems(@RequestHeader(USER_HEADER) Long userId,
                                                            @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
@@ -74,6 +87,14 @@ public class BookingController {
         return bookingClient.patchBooking(userId, bookingId, approved);
     }
 
+    @PatchMapping
+    public ResponseEntity<Object> patchAll(@RequestHeader(USER_HEADER) Long userId,
+                                           @RequestParam Boolean approved,
+                                           @RequestBody @Valid BookingIdsDto bookingIdsDto) {
+        log.info("Patching bookings {}, userId={}, approved={}", bookingIdsDto.getBookingIds(), userId, approved);
+        return bookingClient.patchBookings(userId, approved, bookingIdsDto);
+    }
+
     @GetMapping(BOOKING_ID_PATH)
     public ResponseEntity<Object> getBooking(@RequestHeader(USER_HEADER) long userId,
                                              @PathVariable("booking-id") Long bookingId) {
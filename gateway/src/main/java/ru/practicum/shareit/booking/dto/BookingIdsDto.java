@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingIdsDto {
+    @NotEmpty(message = "Не указаны бронирования")
+    @Size(max = 100, message = "За один запрос можно изменить не более 100 бронирований")
+    private List<@NotNull(message = "Id бронирования не может быть пустым") Long> bookingIds;
+}
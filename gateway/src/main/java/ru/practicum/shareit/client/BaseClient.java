@@ -1,19 +1,40 @@
 package ru.practicum.shareit.client;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @AllArgsConstructor
 public class BaseClient {
+    // Заголовки, которые относятся к соединению с сервером и не передаются клиенту шлюза
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            HttpHeaders.CONNECTION, "Keep-Alive", HttpHeaders.PROXY_AUTHENTICATE, HttpHeaders.PROXY_AUTHORIZATION,
+            HttpHeaders.TE, HttpHeaders.TRAILER, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.UPGRADE,
+            HttpHeaders.CONTENT_LENGTH);
+
     protected final RestTemplate rest;
+    // Ответ сервера отдаётся клиенту байтами как есть, без разбора в Object и повторной сериализации
+    private final boolean passThrough;
+
+    public BaseClient(RestTemplate rest) {
+        this(rest, false);
+    }
 
     protected ResponseEntity<Object> get(String path) {
         log.info("GET request with path: {}", path);
@@ -29,7 +50,9 @@ public class BaseClient {
     protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         log.info("GET request with path: {}, userId: {}, parameters: {}", path, userId, parameters);
         ResponseEntity<Object> response = makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
-        log.info("GET response: {}", response);
+        if (!passThrough) {
+            log.info("GET response: {}", response);
+        }
         return response;
     }
 
@@ -81,10 +104,61 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    /**
+     * Передаёт тело запроса на сервер по мере чтения, не собирая его в памяти шлюза.
+     */
+    protected ResponseEntity<Object> postStream(String path, long userId, MediaType contentType, InputStream body) {
+        log.info("Streaming POST request with path: {}, userId: {}, contentType: {}", path, userId, contentType);
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.setContentType(contentType);
+
+        ResponseEntity<Object> shareitServerResponse;
+        try {
+            shareitServerResponse = rest.execute(path, HttpMethod.POST, request -> {
+                request.getHeaders().putAll(headers);
+                if (request instanceof StreamingHttpOutputMessage streaming) {
+                    streaming.setBody(body::transferTo);
+                } else {
+                    body.transferTo(request.getBody());
+                }
+            }, rest.responseEntityExtractor(Object.class));
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        }
+        return prepareGatewayResponse(shareitServerResponse);
+    }
+
+    /**
+     * Копирует ответ сервера в ответ шлюза по мере получения, не собирая его в памяти шлюза.
+     */
+    protected void getStream(String path, long userId, MediaType accept, HttpServletResponse target) throws IOException {
+        log.info("Streaming GET request with path: {}, userId: {}, accept: {}", path, userId, accept);
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.setAccept(List.of(accept, MediaType.APPLICATION_JSON));
+        try {
+            rest.execute(path, HttpMethod.GET, request -> request.getHeaders().putAll(headers), response -> {
+                target.setStatus(response.getStatusCode().value());
+                MediaType contentType = response.getHeaders().getContentType();
+                if (contentType != null) {
+                    target.setContentType(contentType.toString());
+                }
+                response.getBody().transferTo(target.getOutputStream());
+                return null;
+            });
+        } catch (HttpStatusCodeException e) {
+            target.setStatus(e.getStatusCode().value());
+            target.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            target.getOutputStream().write(e.getResponseBodyAsByteArray());
+        }
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         log.info("Making request with method: {}, path: {}, userId: {}, parameters: {}, body: {}", method, path, userId, parameters, body);
 
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        if (passThrough) {
+            return sendPassThrough(method, path, parameters, requestEntity);
+        }
 
         ResponseEntity<Object> shareitServerResponse;
         try {
@@ -99,6 +173,60 @@ public class BaseClient {
         return prepareGatewayResponse(shareitServerResponse);
     }
 
+    /**
+     * Копирует статус, заголовки и тело ответа сервера прямо в ответ текущего запроса шлюза по мере получения.
+     * Возвращает null: ответ уже записан, и MVC ничего не дописывает.
+     */
+    private ResponseEntity<Object> sendPassThrough(HttpMethod method, String path,
+                                                   @Nullable Map<String, Object> parameters,
+                                                   HttpEntity<?> requestEntity) {
+        HttpServletResponse target = currentResponse();
+        RequestCallback requestCallback = rest.httpEntityCallback(requestEntity);
+        ResponseExtractor<Long> copyToTarget = response -> {
+            copyHead(response.getStatusCode(), response.getHeaders(), target);
+            return response.getBody().transferTo(target.getOutputStream());
+        };
+        try {
+            Long copied = parameters != null
+                    ? rest.execute(path, method, requestCallback, copyToTarget, parameters)
+                    : rest.execute(path, method, requestCallback, copyToTarget);
+            log.info("Pass-through response: {}, {} bytes", target.getStatus(), copied);
+        } catch (HttpStatusCodeException e) {
+            try {
+                copyHead(e.getStatusCode(), e.getResponseHeaders(), target);
+                target.getOutputStream().write(e.getResponseBodyAsByteArray());
+            } catch (IOException ioException) {
+                throw new UncheckedIOException(ioException);
+            }
+        }
+        return null;
+    }
+
+    private static void copyHead(HttpStatusCode status, @Nullable HttpHeaders headers, HttpServletResponse target) {
+        target.setStatus(status.value());
+        endToEndHeaders(headers).forEach((name, values) -> values.forEach(value -> target.addHeader(name, value)));
+    }
+
+    private static HttpServletResponse currentResponse() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                && attributes.getResponse() != null) {
+            return attributes.getResponse();
+        }
+        throw new IllegalStateException("Pass-through requires a current servlet response");
+    }
+
+    private static HttpHeaders endToEndHeaders(@Nullable HttpHeaders headers) {
+        HttpHeaders result = new HttpHeaders();
+        if (headers != null) {
+            headers.forEach((name, values) -> {
+                if (HOP_BY_HOP_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                    result.addAll(name, values);
+                }
+            });
+        }
+        return result;
+    }
+
     private HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.classic.ExecChainHandler;
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время, за которое запрос получает соединение с сервером: ожидание свободного соединения в пуле и, если открытого
+ * свободного нет, установка нового. Пара обработчиков стоит в цепочке клиента до и после ConnectExec.
+ * Метрика httpcomponents.httpclient.pool.acquire, outcome=acquired или timeout (отказ по pool-acquire-timeout).
+ */
+class ConnectionAcquireTimer {
+    private static final String METRIC_NAME = "httpcomponents.httpclient.pool.acquire";
+    private static final String STARTED_AT = ConnectionAcquireTimer.class.getName() + ".startedAt";
+
+    private final Timer acquired;
+    private final Timer timedOut;
+
+    ConnectionAcquireTimer(MeterRegistry meterRegistry, String clientName) {
+        acquired = timer(meterRegistry, clientName, "acquired");
+        timedOut = timer(meterRegistry, clientName, "timeout");
+    }
+
+    // Перед ConnectExec: запоминает начало ожидания и считает отказы по тайм-ауту пула
+    ExecChainHandler beforeConnect() {
+        return (request, scope, chain) -> {
+            long startedAt = System.nanoTime();
+            scope.clientContext.setAttribute(STARTED_AT, startedAt);
+            try {
+                return chain.proceed(request, scope);
+            } catch (ConnectionRequestTimeoutException e) {
+                timedOut.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                throw e;
+            }
+        };
+    }
+
+    // После ConnectExec: соединение получено, повторная попытка запроса измеряется заново
+    ExecChainHandler afterConnect() {
+        return (request, scope, chain) -> {
+            if (scope.clientContext.removeAttribute(STARTED_AT) instanceof Long startedAt) {
+                acquired.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+            return chain.proceed(request, scope);
+        };
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String clientName, String outcome) {
+        return Timer.builder(METRIC_NAME)
+                .description("Time to get a connection from the pool")
+                .tag("httpclient", clientName)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
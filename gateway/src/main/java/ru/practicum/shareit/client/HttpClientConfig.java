@@ -0,0 +1,66 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.ChainElement;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+/**
+ * Общий пул соединений с сервером для всех клиентов шлюза.
+ */
+@Configuration
+public class HttpClientConfig {
+    private static final String POOL_NAME = "shareit-server";
+
+    @Bean
+    public PoolingHttpClientConnectionManager shareItServerConnectionManager(HttpClientProperties properties) {
+        PoolingHttpClientConnectionManager connectionManager = new SemaphoreConnectionManager(
+                Math.min(properties.getMaxTotal(), properties.getMaxPerRoute()));
+        connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                .setSocketTimeout(Timeout.of(properties.getReadTimeout()))
+                .setTimeToLive(TimeValue.of(properties.getTimeToLive()))
+                .setValidateAfterInactivity(TimeValue.of(properties.getValidateAfterInactivity()))
+                .build());
+        return connectionManager;
+    }
+
+    @Bean
+    public CloseableHttpClient shareItServerHttpClient(PoolingHttpClientConnectionManager connectionManager,
+                                                       HttpClientProperties properties,
+                                                       MeterRegistry meterRegistry) {
+        ConnectionAcquireTimer acquireTimer = new ConnectionAcquireTimer(meterRegistry, POOL_NAME);
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .addExecInterceptorBefore(ChainElement.CONNECT.name(), "acquire-started", acquireTimer.beforeConnect())
+                .addExecInterceptorAfter(ChainElement.CONNECT.name(), "acquire-finished", acquireTimer.afterConnect())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(properties.getPoolAcquireTimeout()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(properties.getIdleTimeout()))
+                .build();
+    }
+
+    @Bean
+    public ClientHttpRequestFactory shareItServerRequestFactory(CloseableHttpClient shareItServerHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(shareItServerHttpClient);
+    }
+
+    // Занятые, свободные соединения и ожидающие соединения запросы: httpcomponents.httpclient.pool.*
+    @Bean
+    public MeterBinder shareItServerConnectionPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME);
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit-server.http")
+public class HttpClientProperties {
+    // По числу потоков Tomcat сервера (server.tomcat.threads.max, 200): больше одновременных запросов сервер
+    // всё равно не обработает, а лишние ждут свободного соединения не дольше poolAcquireTimeout
+    private int maxTotal = 200;
+
+    // Все клиенты ходят на один сервер, поэтому ограничение на маршрут совпадает с общим
+    private int maxPerRoute = 200;
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    // Время ожидания следующей порции ответа; импорт и выгрузка бронирований пишут данные постоянно
+    private Duration readTimeout = Duration.ofSeconds(60);
+
+    // Сколько запрос ждёт свободного соединения, прежде чем получить отказ
+    private Duration poolAcquireTimeout = Duration.ofSeconds(5);
+
+    // Меньше keep-alive тайм-аута Tomcat на сервере (20 с), чтобы не брать из пула закрытые сервером соединения
+    private Duration idleTimeout = Duration.ofSeconds(15);
+
+    // Соединение, простоявшее дольше, проверяется перед повторным использованием
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    private Duration timeToLive = Duration.ofMinutes(5);
+}
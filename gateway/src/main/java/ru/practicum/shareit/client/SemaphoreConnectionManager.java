@@ -0,0 +1,75 @@
+package ru.practicum.shareit.client;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Пул соединений, ожидание в котором не занимает поток ОС под виртуальным потоком. Пул HttpCore ждёт освобождения
+ * соединения в synchronized-методе BasicFuture.get, и ждущий виртуальный поток закрепляется за потоком-носителем.
+ * Поэтому запрос сначала получает разрешение справедливого семафора на maxConnections соединений, где виртуальный
+ * поток паркуется, а в пул обращается, когда свободное место в нём заведомо есть. Разрешение возвращается после
+ * возврата соединения в пул. Все запросы идут на один сервер, так что лимит общий для всех маршрутов.
+ */
+class SemaphoreConnectionManager extends PoolingHttpClientConnectionManager {
+    private final Semaphore permits;
+
+    SemaphoreConnectionManager(int maxConnections) {
+        permits = new Semaphore(maxConnections, true);
+        setMaxTotal(maxConnections);
+        setDefaultMaxPerRoute(maxConnections);
+    }
+
+    @Override
+    public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+        return new LeaseRequest() {
+            private volatile LeaseRequest poolRequest;
+
+            @Override
+            public ConnectionEndpoint get(Timeout timeout)
+                    throws InterruptedException, ExecutionException, TimeoutException {
+                acquirePermit(timeout);
+                try {
+                    poolRequest = SemaphoreConnectionManager.super.lease(id, route, requestTimeout, state);
+                    return poolRequest.get(timeout);
+                } catch (InterruptedException | ExecutionException | TimeoutException | RuntimeException e) {
+                    permits.release();
+                    throw e;
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                LeaseRequest request = poolRequest;
+                return request != null && request.cancel();
+            }
+        };
+    }
+
+    @Override
+    public void release(ConnectionEndpoint endpoint, Object state, TimeValue keepAlive) {
+        try {
+            super.release(endpoint, state, keepAlive);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void acquirePermit(Timeout timeout) throws InterruptedException, TimeoutException {
+        if (!TimeValue.isPositive(timeout)) {
+            // Нулевой тайм-аут у HttpClient означает ожидание без ограничения
+            permits.acquire();
+        } else if (!permits.tryAcquire(timeout.toNanoseconds(), TimeUnit.NANOSECONDS)) {
+            throw new TimeoutException("Timeout deadline: " + timeout + ", all " + getMaxTotal()
+                    + " connections are leased");
+        }
+    }
+}
@@ -4,14 +4,17 @@ package ru.practicum.shareit.item;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Service
@@ -19,11 +22,15 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl,
+                      @Value("${shareit-server.pass-through:false}") boolean passThrough,
+                      RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory) {
         super(
                 builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                passThrough
         );
     }
 
@@ -35,17 +42,39 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
+    public ResponseEntity<Object> importItems(long userId, MediaType contentType, InputStream body) {
+        return postStream("/import", userId, contentType, body);
+    }
+
     public ResponseEntity<Object> findItemById(long userId, long itemId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> findItemByText(long userId, String text, Integer from, Integer size) {
+    public ResponseEntity<Object> findAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from.toString(),
+                "to", to.toString()
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> findItemByText(long userId, String text, Boolean ranked, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
+                "ranked", ranked,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return get("/search?text={text}&ranked={ranked}&from={from}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> findItemByTextAfter(long userId, String text, String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "cursor", cursor,
+                "size", size
+        );
+        return get("/search?text={text}&cursor={cursor}&size={size}", userId, parameters);
     }
 
     public ResponseEntity<Object> addItem(Long userId, ItemDto itemDto) {
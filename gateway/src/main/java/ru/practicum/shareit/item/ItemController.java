@@ -1,11 +1,15 @@
 package ru.practicum.shareit.item;
 
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.ValidationException;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -14,6 +18,9 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.validation.Validation;
 import ru.practicum.shareit.validation.ValidationGroups;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
@@ -36,6 +43,15 @@ public class ItemController {
         return itemClient.getItems(userId, from, size);
     }
 
+    // Тело не разбирается в шлюзе: сервер читает его потоком и сам проверяет каждую строку
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<Object> importItems(@RequestHeader(USER_HEADER) long userId,
+                                              HttpServletRequest request) throws IOException {
+        log.info("Importing items for userId={}, contentType={}", userId, request.getContentType());
+        return itemClient.importItems(userId, MediaType.parseMediaType(request.getContentType()),
+                request.getInputStream());
+    }
+
     @GetMapping(ITEM_ID_PATH)
     public ResponseEntity<Object> findById(@RequestHeader(USER_HEADER) long userId,
                                            @PathVariable("item-id") Long itemId) {
@@ -43,14 +59,36 @@ public class ItemController {
         return itemClient.findItemById(userId, itemId);
     }
 
+    @GetMapping(ITEM_ID_PATH + "/availability")
+    public ResponseEntity<Object> findAvailability(
+            @RequestHeader(USER_HEADER) long userId,
+            @PathVariable("item-id") Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Fetching free intervals of itemId={} for userId={}, from={}, to={}", itemId, userId, from, to);
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Начало периода должно быть раньше его конца");
+        }
+        return itemClient.findAvailability(userId, itemId, from, to);
+    }
+
     @GetMapping("/search")
     public ResponseEntity<Object> findByText(
             @RequestHeader(USER_HEADER) long userId,
             @RequestParam String text,
+            @RequestParam(defaultValue = "false") Boolean ranked,
             @RequestParam(defaultValue = "0") @PositiveOrZero(message = FROM_ERROR_MESSAGE) Integer from,
-            @RequestParam(defaultValue = "10") @Positive(message = SIZE_ERROR_MESSAGE) Integer size) {
-        log.info("Searching for items with text='{}' for userId={}, from={}, size={}", text, userId, from, size);
-        return itemClient.findItemByText(userId, text, from, size);
+            @RequestParam(defaultValue = "10") @Positive(message = SIZE_ERROR_MESSAGE) Integer size,
+            @RequestParam(required = false) String cursor) {
+        log.info("Searching for items with text='{}' for userId={}, ranked={}, from={}, size={}, cursor={}",
+                text, userId, ranked, from, size, cursor);
+        if (cursor != null) {
+            if (ranked) {
+                throw new ValidationException("Курсор не поддерживается для ранжированного поиска");
+            }
+            return itemClient.findItemByTextAfter(userId, text, cursor, size);
+        }
+        return itemClient.findItemByText(userId, text, ranked, from, size);
     }
 
     @PostMapping
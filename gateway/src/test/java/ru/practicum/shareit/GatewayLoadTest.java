@@ -0,0 +1,145 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Нагрузка на шлюз с настройками из application.properties перед медленным сервером: обработка запросов пулом
+ * потоков Tomcat и виртуальными потоками. Пул соединений с сервером ограничен, поэтому при нехватке соединений
+ * шлюз отвечает 503 через pool-acquire-timeout; такие ответы считаются отдельно от ошибок.
+ * Клиенты, шлюз и сервер работают в одном процессе, и на каждый запрос приходится четыре сокета,
+ * поэтому concurrency ограничена лимитом открытых файлов (ulimit -n) примерно четвертью от него.
+ * Запуск: mvn test -pl gateway -Dtest=GatewayLoadTest -Dshareit.benchmark=true [-Dshareit.load.concurrency=2000]
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+class GatewayLoadTest {
+    private static final int CONCURRENCY = Integer.getInteger("shareit.load.concurrency", 2_000);
+    private static final int REQUESTS_PER_CLIENT = 5;
+    private static final Duration SERVER_LATENCY = Duration.ofSeconds(1);
+    private static final byte[] USER = "{\"id\":1,\"name\":\"user\",\"email\":\"user@mail.ru\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        // Встроенный сервер JDK по умолчанию закрывает простаивающие соединения сверх 200
+        System.setProperty("sun.net.httpserver.maxIdleConnections", String.valueOf(CONCURRENCY * 2));
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), CONCURRENCY * 2);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(SERVER_LATENCY);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, USER.length);
+            exchange.getResponseBody().write(USER);
+            exchange.close();
+        });
+        server.start();
+        try {
+            String serverUrl = "http://localhost:" + server.getAddress().getPort();
+            Result platform = run(serverUrl, false);
+            Result virtual = run(serverUrl, true);
+            log.warn("Параллельных клиентов: {}, задержка сервера: {} мс", CONCURRENCY, SERVER_LATENCY.toMillis());
+            log.warn("Потоки Tomcat:      {}", platform);
+            log.warn("Виртуальные потоки: {}", virtual);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private Result run(String serverUrl, boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItGateway.class).run(
+                "--server.port=0",
+                "--shareit-server.url=" + serverUrl,
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                // Пул соединений, тайм-ауты и лимиты Tomcat - как в application.properties
+                "--logging.level.root=WARN")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/users/1");
+            load(uri, 1, REQUESTS_PER_CLIENT);
+            return load(uri, CONCURRENCY, REQUESTS_PER_CLIENT);
+        }
+    }
+
+    private Result load(URI uri, int clients, int requestsPerClient) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        long[] latencies = new long[clients * requestsPerClient];
+        AtomicInteger index = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        long startedAt = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder().executor(executor).build()) {
+            List<Future<?>> futures = new ArrayList<>(clients);
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < requestsPerClient; j++) {
+                        long requestStartedAt = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 503) {
+                                rejected.incrementAndGet();
+                            } else if (response.statusCode() != 200) {
+                                failures.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            failures.incrementAndGet();
+                        }
+                        latencies[index.getAndIncrement()] = System.nanoTime() - requestStartedAt;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        assertEquals(0, failures.get());
+
+        Arrays.sort(latencies);
+        return new Result(latencies.length * 1_000_000_000L / elapsed,
+                latencies[latencies.length / 2] / 1_000_000,
+                latencies[(int) (latencies.length * 0.99) - 1] / 1_000_000,
+                rejected.get(),
+                threads.getPeakThreadCount());
+    }
+
+    // В пиковое число потоков входят только потоки ОС, виртуальные потоки не учитываются
+    private record Result(long requestsPerSecond, long p50Millis, long p99Millis, int rejected, int peakThreads) {
+        @Override
+        public String toString() {
+            return String.format("%d запросов/с, p50 %d мс, p99 %d мс, отклонено 503: %d, потоков ОС в пике %d",
+                    requestsPerSecond, p50Millis, p99Millis, rejected, peakThreads);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BaseClientPassThroughTest {
+    private static final byte[] ITEMS = "[{\"id\":1,\"name\":\"Дрель\"}]".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NOT_FOUND = "{\"error\":\"Вещь не найдена\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] HEAD = "[{\"id\":1},".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TAIL = "{\"id\":2}]".getBytes(StandardCharsets.UTF_8);
+
+    private final CountDownLatch headReceived = new CountDownLatch(1);
+    private HttpServer server;
+    private BaseClient client;
+    private StreamingResponse target;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/items", exchange -> {
+            exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            exchange.getResponseHeaders().add("X-Next-Cursor", "42");
+            boolean missing = exchange.getRequestURI().getPath().endsWith("/404");
+            // Длина 0 - ответ уходит частями, с заголовком Transfer-Encoding
+            exchange.sendResponseHeaders(missing ? 404 : 200, 0);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(missing ? NOT_FOUND : ITEMS);
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(HEAD);
+                body.flush();
+                // Конец ответа уходит, только когда начало уже дошло до клиента шлюза
+                awaitQuietly(headReceived);
+                body.write(TAIL);
+            }
+        });
+        server.start();
+        client = new BaseClient(new RestTemplateBuilder()
+                .rootUri("http://localhost:" + server.getAddress().getPort())
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                .build(), true);
+        target = new StreamingResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(), target));
+    }
+
+    @AfterEach
+    void stopServer() {
+        RequestContextHolder.resetRequestAttributes();
+        server.stop(0);
+    }
+
+    @Test
+    void passThroughKeepsBodyAndEndToEndHeaders() {
+        assertNull(client.get("/items", 1L));
+
+        assertEquals(HttpStatus.OK.value(), target.getStatus());
+        assertArrayEquals(ITEMS, target.getContentAsByteArray());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, target.getContentType());
+        assertEquals("42", target.getHeader("X-Next-Cursor"));
+        assertFalse(target.containsHeader(HttpHeaders.TRANSFER_ENCODING));
+        assertFalse(target.containsHeader(HttpHeaders.CONTENT_LENGTH));
+    }
+
+    @Test
+    void passThroughKeepsErrorStatusAndBody() {
+        assertNull(client.get("/items/404", 1L));
+
+        assertEquals(HttpStatus.NOT_FOUND.value(), target.getStatus());
+        assertArrayEquals(NOT_FOUND, target.getContentAsByteArray());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, target.getContentType());
+    }
+
+    @Test
+    void passThroughWritesBodyBeforeServerFinishes() {
+        assertNull(client.get("/slow", 1L));
+
+        assertTrue(target.headWrittenEarly, "Начало ответа должно дойти до клиента до конца ответа сервера");
+        assertEquals(new String(HEAD, StandardCharsets.UTF_8) + new String(TAIL, StandardCharsets.UTF_8),
+                new String(target.getContentAsByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Ответ шлюза, который отмечает, что начало тела пришло, пока сервер ещё ждёт
+    private class StreamingResponse extends MockHttpServletResponse {
+        private boolean headWrittenEarly;
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            ServletOutputStream delegate = super.getOutputStream();
+            return new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    write(new byte[]{(byte) b}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] bytes, int offset, int length) throws IOException {
+                    delegate.write(bytes, offset, length);
+                    if (headReceived.getCount() > 0 && getContentAsByteArray().length >= HEAD.length) {
+                        headWrittenEarly = true;
+                        headReceived.countDown();
+                    }
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                }
+            };
+        }
+    }
+}
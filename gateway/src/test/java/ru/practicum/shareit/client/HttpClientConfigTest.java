@@ -0,0 +1,173 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.concurrent.BasicFuture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpClientConfigTest {
+    private final HttpClientConfig config = new HttpClientConfig();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch slowStarted = new CountDownLatch(1);
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private HttpServer server;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/slow", exchange -> {
+            slowStarted.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        release.countDown();
+        if (httpClient != null) {
+            httpClient.close();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    void requestFailsWhenPoolIsExhaustedForLongerThanAcquireTimeout() throws Exception {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setMaxPerRoute(1);
+        properties.setPoolAcquireTimeout(Duration.ofMillis(200));
+        RestTemplate rest = restTemplate(properties);
+        config.shareItServerConnectionPoolMetrics(connectionManager).bindTo(registry);
+
+        CompletableFuture<HttpStatus> slow = CompletableFuture.supplyAsync(() ->
+                HttpStatus.valueOf(rest.getForEntity("/slow", Void.class).getStatusCode().value()));
+        assertTrue(slowStarted.await(5, TimeUnit.SECONDS));
+        assertEquals(1.0, registry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("state", "leased").gauge().value());
+
+        long startedAt = System.nanoTime();
+        assertThrows(ResourceAccessException.class, () -> rest.getForEntity("/slow", Void.class));
+        assertTrue(System.nanoTime() - startedAt < TimeUnit.SECONDS.toNanos(2));
+        Timer timedOut = acquireTimer("timeout");
+        assertEquals(1, timedOut.count());
+        assertTrue(timedOut.totalTime(TimeUnit.MILLISECONDS) >= 200);
+
+        release.countDown();
+        assertEquals(HttpStatus.OK, slow.get(5, TimeUnit.SECONDS));
+        assertEquals(0.0, registry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("state", "leased").gauge().value());
+        // Соединение вернулось в пул и используется повторно
+        assertEquals(1.0, registry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("state", "available").gauge().value());
+        assertEquals(1, acquireTimer("acquired").count());
+        // Разрешение запроса, не дождавшегося соединения, тоже вернулось
+        assertEquals(HttpStatus.OK, HttpStatus.valueOf(rest.getForEntity("/slow", Void.class).getStatusCode().value()));
+    }
+
+    @Test
+    void virtualThreadWaitsForConnectionInSemaphoreInsteadOfPool() throws Exception {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setMaxPerRoute(1);
+        RestTemplate rest = restTemplate(properties);
+
+        CompletableFuture<HttpStatus> slow = CompletableFuture.supplyAsync(() ->
+                HttpStatus.valueOf(rest.getForEntity("/slow", Void.class).getStatusCode().value()));
+        assertTrue(slowStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<HttpStatus> waiting = new CompletableFuture<>();
+        Thread waiter = Thread.ofVirtual().start(() -> waiting.complete(
+                HttpStatus.valueOf(rest.getForEntity("/slow", Void.class).getStatusCode().value())));
+        while (waiter.getState() != Thread.State.WAITING && waiter.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(10);
+        }
+
+        // Ожидание в synchronized BasicFuture.get закрепило бы виртуальный поток за потоком ОС
+        List<String> waitingIn = Arrays.stream(waiter.getStackTrace()).map(StackTraceElement::getClassName).toList();
+        assertTrue(waitingIn.stream().anyMatch(Semaphore.class.getName()::startsWith), waitingIn.toString());
+        assertFalse(waitingIn.contains(BasicFuture.class.getName()), waitingIn.toString());
+
+        release.countDown();
+        assertEquals(HttpStatus.OK, slow.get(5, TimeUnit.SECONDS));
+        assertEquals(HttpStatus.OK, waiting.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void acquireTimerMeasuresWaitForBusyConnection() throws Exception {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setMaxPerRoute(1);
+        RestTemplate rest = restTemplate(properties);
+
+        CompletableFuture<HttpStatus> slow = CompletableFuture.supplyAsync(() ->
+                HttpStatus.valueOf(rest.getForEntity("/slow", Void.class).getStatusCode().value()));
+        assertTrue(slowStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<HttpStatus> waiting = CompletableFuture.supplyAsync(() ->
+                HttpStatus.valueOf(rest.getForEntity("/slow", Void.class).getStatusCode().value()));
+        Thread.sleep(300);
+        release.countDown();
+
+        assertEquals(HttpStatus.OK, slow.get(5, TimeUnit.SECONDS));
+        assertEquals(HttpStatus.OK, waiting.get(5, TimeUnit.SECONDS));
+        Timer acquired = acquireTimer("acquired");
+        assertEquals(2, acquired.count());
+        // Второй запрос ждал, пока первый освободит единственное соединение
+        assertTrue(acquired.max(TimeUnit.MILLISECONDS) >= 250);
+        assertEquals(0, acquireTimer("timeout").count());
+    }
+
+    @Test
+    void requestFailsWhenServerDoesNotAnswerWithinReadTimeout() {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setReadTimeout(Duration.ofMillis(200));
+        RestTemplate rest = restTemplate(properties);
+
+        assertThrows(ResourceAccessException.class, () -> rest.getForEntity("/slow", Void.class));
+    }
+
+    private Timer acquireTimer(String outcome) {
+        return registry.get("httpcomponents.httpclient.pool.acquire").tag("outcome", outcome).timer();
+    }
+
+    private RestTemplate restTemplate(HttpClientProperties properties) {
+        connectionManager = config.shareItServerConnectionManager(properties);
+        httpClient = config.shareItServerHttpClient(connectionManager, properties, registry);
+        return new RestTemplateBuilder()
+                .rootUri("http://localhost:" + server.getAddress().getPort())
+                .requestFactory(() -> config.shareItServerRequestFactory(httpClient))
+                .build();
+    }
+}
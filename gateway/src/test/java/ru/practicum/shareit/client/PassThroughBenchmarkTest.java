@@ -0,0 +1,165 @@
+package ru.practicum.shareit.client;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Сравнение разбора ответа сервера в Object с повторной сериализацией и передачи байтов как есть
+ * на большом списке бронирований. Логирование отключено, поэтому выигрыш режима pass-through занижен.
+ * Запуск: mvn test -pl gateway -Dtest=PassThroughBenchmarkTest -Dshareit.benchmark=true
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+class PassThroughBenchmarkTest {
+    private static final int BOOKINGS = 10_000;
+    private static final int WARMUP = 50;
+    private static final int REQUESTS = 300;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void compareObjectMappingWithPassThrough() throws Exception {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        byte[] bookings = bookingsJson();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/bookings", exchange -> {
+            exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            exchange.sendResponseHeaders(200, bookings.length);
+            exchange.getResponseBody().write(bookings);
+            exchange.close();
+        });
+        server.start();
+        try {
+            String rootUri = "http://localhost:" + server.getAddress().getPort();
+            BaseClient objectClient = new BaseClient(restTemplate(rootUri), false);
+            BaseClient passThroughClient = new BaseClient(restTemplate(rootUri), true);
+
+            MockHttpServletResponse check = bindResponse(new MockHttpServletResponse());
+            passThroughClient.get("/bookings", 1L);
+            assertArrayEquals(bookings, check.getContentAsByteArray());
+            // В режиме Object MVC заново сериализует тело ответа, это часть стоимости запроса
+            measure("object", objectClient, response -> writeAsMvc(response.getBody()));
+            // В режиме pass-through тело копируется прямо в ответ шлюза, здесь он отбрасывает байты, как сокет
+            DiscardingResponse discarding = bindResponse(new DiscardingResponse());
+            measure("pass-through", passThroughClient, response -> (int) discarding.written);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+            server.stop(0);
+        }
+        log.warn("Размер ответа: {} KB, {} бронирований", bookings.length / 1024, BOOKINGS);
+    }
+
+    private void measure(String mode, BaseClient client, ToIntFunction<ResponseEntity<Object>> write) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        for (int i = 0; i < WARMUP; i++) {
+            write.applyAsInt(client.get("/bookings", 1L));
+        }
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            write.applyAsInt(client.get("/bookings", 1L));
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        log.warn("{}: {} мкс/запрос, {} KB выделено на запрос", mode,
+                elapsed / REQUESTS / 1_000, allocated / REQUESTS / 1024);
+    }
+
+    private int writeAsMvc(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body).length;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static <T extends MockHttpServletResponse> T bindResponse(T response) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(), response));
+        return response;
+    }
+
+    private RestTemplate restTemplate(String rootUri) {
+        return new RestTemplateBuilder()
+                .rootUri(rootUri)
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                .build();
+    }
+
+    private static byte[] bookingsJson() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 1; i <= BOOKINGS; i++) {
+            if (i > 1) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                    .append(",\"start\":\"").append(start.plusHours(i)).append('"')
+                    .append(",\"end\":\"").append(start.plusHours(i + 1)).append('"')
+                    .append(",\"status\":\"APPROVED\"")
+                    .append(",\"item\":{\"id\":").append(i % 100 + 1)
+                    .append(",\"name\":\"Дрель ").append(i % 100)
+                    .append("\",\"description\":\"Простая дрель\",\"available\":true,\"requestId\":null}")
+                    .append(",\"booker\":{\"id\":").append(i % 50 + 1)
+                    .append(",\"name\":\"user").append(i % 50)
+                    .append("\",\"email\":\"user").append(i % 50).append("@mail.ru\"}}");
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static class DiscardingResponse extends MockHttpServletResponse {
+        private long written;
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return new ServletOutputStream() {
+                @Override
+                public void write(int b) {
+                    written++;
+                }
+
+                @Override
+                public void write(byte[] bytes, int offset, int length) {
+                    written += length;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                }
+            };
+        }
+    }
+}
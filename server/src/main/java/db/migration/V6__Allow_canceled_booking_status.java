@@ -0,0 +1,43 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Разрешает статус CANCELED в bookings. Ограничение на статус в V1 создано без имени, а имя, выданное ему базой,
+ * в H2 и PostgreSQL разное, поэтому оно ищется в information_schema и заменяется именованным.
+ */
+public class V6__Allow_canceled_booking_status extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        List<String> constraints = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT tc.constraint_name FROM information_schema.table_constraints tc " +
+                        "JOIN information_schema.check_constraints cc " +
+                        "ON cc.constraint_schema = tc.constraint_schema AND cc.constraint_name = tc.constraint_name " +
+                        "WHERE LOWER(tc.table_name) = 'bookings' AND tc.table_schema = CURRENT_SCHEMA " +
+                        "AND tc.constraint_type = 'CHECK' AND cc.check_clause LIKE '%WAITING%'");
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                constraints.add(resultSet.getString(1));
+            }
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            for (String constraint : constraints) {
+                statement.execute("ALTER TABLE bookings DROP CONSTRAINT \"" + constraint + "\"");
+            }
+            statement.execute("ALTER TABLE bookings ADD CONSTRAINT ck_booking_status " +
+                    "CHECK (status IN ('WAITING', 'APPROVED', 'REJECTED', 'CANCELED'))");
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Переводит первичные ключи с IDENTITY на последовательности с шагом 50, из которых Hibernate выделяет id
+ * блоками и может пакетировать INSERT. Последовательность начинается с max(id) + 50: первый полученный
+ * блок - (max(id), max(id) + 50]. Значение по умолчанию столбца тоже берётся из последовательности,
+ * чтобы вставки в обход Hibernate не пересекались с выделенными блоками.
+ */
+public class V8__Pooled_id_sequences extends BaseJavaMigration {
+    private static final int ALLOCATION_SIZE = 50;
+    private static final List<String> TABLES = List.of("users", "item_requests", "items", "bookings", "comments");
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean postgres = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+        try (Statement statement = connection.createStatement()) {
+            for (String table : TABLES) {
+                long maxId;
+                try (ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+                    resultSet.next();
+                    maxId = resultSet.getLong(1);
+                }
+                String sequence = table + "_seq";
+                statement.execute("CREATE SEQUENCE " + sequence + " START WITH " + (maxId + ALLOCATION_SIZE) +
+                        " INCREMENT BY " + ALLOCATION_SIZE);
+                statement.execute("ALTER TABLE " + table + " ALTER COLUMN id DROP IDENTITY");
+                if (postgres) {
+                    statement.execute("ALTER TABLE " + table + " ALTER COLUMN id SET DEFAULT nextval('" + sequence + "')");
+                    statement.execute("ALTER SEQUENCE " + sequence + " OWNED BY " + table + ".id");
+                } else {
+                    statement.execute("ALTER TABLE " + table + " ALTER COLUMN id SET DEFAULT NEXT VALUE FOR " + sequence);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package ru.practicum.shareit.booking.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.error.exception.ValidationException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Свободные интервалы вещи за период: промежутки между слитыми подтверждёнными бронированиями.
+ * Все моменты строго внутри интервала свободны, а граница, не совпадающая с краем периода, - край бронирования,
+ * поэтому бронирование, целиком лежащее внутри интервала, пройдёт проверку пересечений.
+ * С включёнными dayBitmaps занятость каждого дня кэшируется картой из 1440 минут: минута занята,
+ * если её задевает бронирование, и ответ для часто запрашиваемых вещей собирается из кэша без обращения к индексу.
+ */
+@Slf4j
+@Component
+public class AvailabilityCalendar {
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final BookingAvailability bookingAvailability;
+    private final AvailabilityCalendarProperties properties;
+    private final Cache<ItemDay, BitSet> days;
+
+    public AvailabilityCalendar(BookingAvailability bookingAvailability, AvailabilityCalendarProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.bookingAvailability = bookingAvailability;
+        this.properties = properties;
+        days = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumDays())
+                .expireAfterWrite(properties.getDayTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, days, "availabilityDays");
+    }
+
+    public List<TimeInterval> freeIntervals(long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            log.error("Invalid availability period: from={}, to={}", from, to);
+            throw new ValidationException("Начало периода должно быть раньше его конца");
+        }
+        if (Duration.between(from, to).compareTo(properties.getMaxRange()) > 0) {
+            log.error("Availability period is too long: from={}, to={}", from, to);
+            throw new ValidationException(String.format("Период не может быть длиннее %d дней",
+                    properties.getMaxRange().toDays()));
+        }
+
+        if (properties.isDayBitmaps()) {
+            return freeFromBitmaps(itemId, from, to);
+        }
+        return gaps(from, to, bookingAvailability.approvedBlocks(itemId, from, to));
+    }
+
+    /**
+     * Сбрасывает карты дней, которые задевает бронирование, после фиксации изменившей его транзакции.
+     */
+    public void evict(Booking booking) {
+        if (!properties.isDayBitmaps()) {
+            return;
+        }
+        List<ItemDay> keys = new ArrayList<>();
+        long itemId = booking.getItem().getId();
+        for (LocalDate day = booking.getStartDate().toLocalDate();
+             !day.isAfter(booking.getEndDate().toLocalDate()); day = day.plusDays(1)) {
+            keys.add(new ItemDay(itemId, day));
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    days.invalidateAll(keys);
+                }
+            });
+        } else {
+            days.invalidateAll(keys);
+        }
+    }
+
+    static List<TimeInterval> gaps(LocalDateTime from, LocalDateTime to, List<TimeInterval> blocks) {
+        List<TimeInterval> result = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (TimeInterval block : blocks) {
+            if (block.start().isAfter(cursor)) {
+                result.add(new TimeInterval(cursor, block.start()));
+            }
+            if (block.end().isAfter(cursor)) {
+                cursor = block.end();
+            }
+        }
+        if (cursor.isBefore(to)) {
+            result.add(new TimeInterval(cursor, to));
+        }
+        return result;
+    }
+
+    private List<TimeInterval> freeFromBitmaps(long itemId, LocalDateTime from, LocalDateTime to) {
+        List<TimeInterval> result = new ArrayList<>();
+        LocalDateTime freeStart = null;
+        for (LocalDate day = from.toLocalDate(); !day.isAfter(to.toLocalDate()); day = day.plusDays(1)) {
+            BitSet busy = days.get(new ItemDay(itemId, day), this::loadDay);
+            LocalDateTime dayStart = day.atStartOfDay();
+            int minute = day.equals(from.toLocalDate()) ? minuteOf(from) : 0;
+            int last = day.equals(to.toLocalDate()) ? minuteOf(to) : MINUTES_PER_DAY - 1;
+            while (minute <= last) {
+                if (freeStart == null) {
+                    minute = busy.nextClearBit(minute);
+                    if (minute > last) {
+                        break;
+                    }
+                    LocalDateTime minuteStart = dayStart.plusMinutes(minute);
+                    freeStart = minuteStart.isBefore(from) ? from : minuteStart;
+                } else {
+                    minute = busy.nextSetBit(minute);
+                    if (minute < 0 || minute > last) {
+                        break;
+                    }
+                    result.add(new TimeInterval(freeStart, dayStart.plusMinutes(minute)));
+                    freeStart = null;
+                }
+            }
+        }
+        if (freeStart != null) {
+            result.add(new TimeInterval(freeStart, to));
+        }
+        return result;
+    }
+
+    private BitSet loadDay(ItemDay key) {
+        LocalDateTime dayStart = key.day().atStartOfDay();
+        LocalDateTime dayEnd = dayStart.plusDays(1).minusNanos(1);
+        BitSet busy = new BitSet(MINUTES_PER_DAY);
+        for (TimeInterval block : bookingAvailability.approvedBlocks(key.itemId(), dayStart, dayEnd)) {
+            int first = block.start().isAfter(dayStart) ? minuteOf(block.start()) : 0;
+            int last = block.end().isBefore(dayEnd) ? minuteOf(block.end()) : MINUTES_PER_DAY - 1;
+            busy.set(first, last + 1);
+        }
+        log.debug("Loaded occupancy of item id: {} for {}: {} busy minutes", key.itemId(), key.day(),
+                busy.cardinality());
+        return busy;
+    }
+
+    private static int minuteOf(LocalDateTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private record ItemDay(long itemId, LocalDate day) {
+    }
+}
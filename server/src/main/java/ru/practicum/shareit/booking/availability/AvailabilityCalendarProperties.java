@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.booking.calendar")
+public class AvailabilityCalendarProperties {
+    // Самый длинный период, свободные интервалы которого можно запросить за раз
+    private Duration maxRange = Duration.ofDays(92);
+
+    // Хранить занятость по дням минутными битовыми картами; свободные интервалы тогда сужаются до целых минут
+    private boolean dayBitmaps = false;
+
+    private long maximumDays = 10_000;
+
+    private Duration dayTtl = Duration.ofMinutes(10);
+}
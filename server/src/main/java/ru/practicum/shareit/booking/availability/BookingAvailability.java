@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.availability;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingAvailability {
+    boolean hasApprovedOverlap(long itemId, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Занятые подтверждёнными бронированиями непересекающиеся интервалы, задевающие [from, to], по возрастанию начала.
+     */
+    List<TimeInterval> approvedBlocks(long itemId, LocalDateTime from, LocalDateTime to);
+
+    void approved(Booking booking);
+
+    void released(Booking booking);
+}
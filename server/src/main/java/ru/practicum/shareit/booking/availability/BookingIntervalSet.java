@@ -0,0 +1,142 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Подтверждённые бронирования одной вещи, сгруппированные в непересекающиеся блоки, упорядоченные по началу.
+ * Пересекающиеся бронирования попадают в один блок, поэтому проверка занятости - один поиск floorEntry.
+ * Границы интервалов включаются, как в BETWEEN запроса findBookingsAtSameTime.
+ */
+public class BookingIntervalSet {
+    private final NavigableMap<LocalDateTime, Block> blocks = new TreeMap<>();
+    private final Map<Long, Interval> intervals = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void add(long bookingId, LocalDateTime start, LocalDateTime end) {
+        lock.writeLock().lock();
+        try {
+            removeInterval(bookingId);
+            Interval interval = new Interval(bookingId, start, end);
+            intervals.put(bookingId, interval);
+
+            Block merged = new Block();
+            merged.add(interval);
+            Map.Entry<LocalDateTime, Block> entry = blocks.floorEntry(end);
+            while (entry != null && !entry.getValue().end.isBefore(start)) {
+                blocks.remove(entry.getKey());
+                entry.getValue().members.values().forEach(merged::add);
+                entry = blocks.floorEntry(end);
+            }
+            blocks.put(merged.start, merged);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long bookingId) {
+        lock.writeLock().lock();
+        try {
+            removeInterval(bookingId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return intervals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Пересекается ли [start, end] хотя бы с одним бронированием.
+     */
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        lock.readLock().lock();
+        try {
+            // Блоки не пересекаются, поэтому у блока с наибольшим началом не позже end и наибольший конец
+            Map.Entry<LocalDateTime, Block> entry = blocks.floorEntry(end);
+            return entry != null && !entry.getValue().end.isBefore(start);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Блоки занятости, пересекающиеся с [from, to], по возрастанию начала.
+     */
+    public List<TimeInterval> blocksBetween(LocalDateTime from, LocalDateTime to) {
+        lock.readLock().lock();
+        try {
+            List<TimeInterval> result = new ArrayList<>();
+            LocalDateTime first = blocks.floorKey(from);
+            for (Block block : blocks.subMap(first != null ? first : from, true, to, true).values()) {
+                if (!block.end.isBefore(from)) {
+                    result.add(new TimeInterval(block.start, block.end));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeInterval(long bookingId) {
+        Interval interval = intervals.remove(bookingId);
+        if (interval == null) {
+            return;
+        }
+        Map.Entry<LocalDateTime, Block> entry = blocks.floorEntry(interval.start());
+        Block block = entry.getValue();
+        block.members.remove(bookingId);
+        blocks.remove(entry.getKey());
+
+        // Без удалённого бронирования блок может распасться на несколько
+        List<Interval> rest = new ArrayList<>(block.members.values());
+        rest.sort(Comparator.comparing(Interval::start));
+        Block current = null;
+        for (Interval member : rest) {
+            if (current == null || member.start().isAfter(current.end)) {
+                if (current != null) {
+                    blocks.put(current.start, current);
+                }
+                current = new Block();
+            }
+            current.add(member);
+        }
+        if (current != null) {
+            blocks.put(current.start, current);
+        }
+    }
+
+    private static class Block {
+        private final Map<Long, Interval> members = new HashMap<>();
+        private LocalDateTime start;
+        private LocalDateTime end;
+
+        void add(Interval interval) {
+            members.put(interval.bookingId(), interval);
+            if (start == null || interval.start().isBefore(start)) {
+                start = interval.start();
+            }
+            if (end == null || interval.end().isAfter(end)) {
+                end = interval.end();
+            }
+        }
+    }
+
+    private record Interval(long bookingId, LocalDateTime start, LocalDateTime end) {
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Полосатые блокировки по id вещи: проверка пересечений и запись бронирования одной вещи выполняются по очереди,
+ * а бронирования разных вещей почти всегда попадают в разные полосы и не мешают друг другу.
+ * Блокировка снимается после завершения транзакции, чтобы следующая проверка видела зафиксированную запись.
+ * Защищает только в пределах одного экземпляра сервера.
+ */
+@Slf4j
+@Component
+public class ItemBookingLocks {
+    private final ReentrantLock[] stripes;
+
+    public ItemBookingLocks(@Value("${shareit.booking.lock-stripes:256}") int stripeCount) {
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public void lockUntilCompletion(long itemId) {
+        lockStripe(stripeOf(itemId));
+        log.debug("Locked bookings of item id: {}", itemId);
+    }
+
+    /**
+     * Блокирует несколько вещей сразу. Полосы берутся по возрастанию номера,
+     * поэтому две такие транзакции не могут ждать друг друга по кругу.
+     */
+    public void lockAllUntilCompletion(Collection<Long> itemIds) {
+        int[] indexes = itemIds.stream()
+                .mapToInt(this::stripeOf)
+                .distinct()
+                .sorted()
+                .toArray();
+        for (int index : indexes) {
+            lockStripe(index);
+        }
+        log.debug("Locked bookings of {} items in {} stripes", itemIds.size(), indexes.length);
+    }
+
+    private int stripeOf(long itemId) {
+        return (int) Math.floorMod(itemId, (long) stripes.length);
+    }
+
+    private void lockStripe(int index) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Item booking lock requires an active transaction");
+        }
+        ReentrantLock lock = stripes[index];
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+}
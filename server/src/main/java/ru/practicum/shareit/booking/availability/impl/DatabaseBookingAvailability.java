@@ -0,0 +1,52 @@
+package ru.practicum.shareit.booking.availability.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.availability.BookingAvailability;
+import ru.practicum.shareit.booking.availability.TimeInterval;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingTimes;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.booking.availability", havingValue = "database", matchIfMissing = true)
+public class DatabaseBookingAvailability implements BookingAvailability {
+    private final BookingRepository bookingRepository;
+
+    @Override
+    public boolean hasApprovedOverlap(long itemId, LocalDateTime start, LocalDateTime end) {
+        return !bookingRepository.findBookingsAtSameTime(itemId, Status.APPROVED, start, end).isEmpty();
+    }
+
+    @Override
+    public List<TimeInterval> approvedBlocks(long itemId, LocalDateTime from, LocalDateTime to) {
+        // Бронирования отсортированы по началу, пересекающиеся сливаются за один проход
+        List<TimeInterval> blocks = new ArrayList<>();
+        for (BookingTimes booking : bookingRepository.findApprovedOverlapping(itemId, from, to)) {
+            TimeInterval last = blocks.isEmpty() ? null : blocks.get(blocks.size() - 1);
+            if (last != null && !booking.getStartDate().isAfter(last.end())) {
+                if (booking.getEndDate().isAfter(last.end())) {
+                    blocks.set(blocks.size() - 1, new TimeInterval(last.start(), booking.getEndDate()));
+                }
+            } else {
+                blocks.add(new TimeInterval(booking.getStartDate(), booking.getEndDate()));
+            }
+        }
+        return blocks;
+    }
+
+    @Override
+    public void approved(Booking booking) {
+    }
+
+    @Override
+    public void released(Booking booking) {
+    }
+}
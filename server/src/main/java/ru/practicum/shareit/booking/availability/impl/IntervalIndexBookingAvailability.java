@@ -0,0 +1,144 @@
+package ru.practicum.shareit.booking.availability.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.availability.BookingAvailability;
+import ru.practicum.shareit.booking.availability.BookingIntervalSet;
+import ru.practicum.shareit.booking.availability.TimeInterval;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingTimes;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Подтверждённые бронирования вещей в памяти экземпляра сервера. Изменения других экземпляров сюда не попадают,
+ * поэтому режим подходит только для развёртывания из одного экземпляра.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.availability", havingValue = "index")
+public class IntervalIndexBookingAvailability implements BookingAvailability {
+    private static final int CHANGE_STRIPES = 256;
+    private static final int LOAD_ATTEMPTS = 3;
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, BookingIntervalSet> items;
+    // Число зафиксированных изменений по полосам id вещи: загрузка, во время которой вещь могла измениться, не кэшируется
+    private final AtomicLongArray changes = new AtomicLongArray(CHANGE_STRIPES);
+
+    public IntervalIndexBookingAvailability(BookingRepository bookingRepository,
+                                            @Value("${shareit.booking.index.maximum-size:10000}") long maximumSize,
+                                            MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.items = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, items, "bookingIntervals");
+    }
+
+    @Override
+    public boolean hasApprovedOverlap(long itemId, LocalDateTime start, LocalDateTime end) {
+        return intervals(itemId).overlaps(start, end);
+    }
+
+    @Override
+    public List<TimeInterval> approvedBlocks(long itemId, LocalDateTime from, LocalDateTime to) {
+        return intervals(itemId).blocksBetween(from, to);
+    }
+
+    @Override
+    public void approved(Booking booking) {
+        long bookingId = booking.getId();
+        LocalDateTime start = booking.getStartDate();
+        LocalDateTime end = booking.getEndDate();
+        afterCommit(booking.getItem().getId(), intervals -> intervals.add(bookingId, start, end));
+    }
+
+    @Override
+    public void released(Booking booking) {
+        long bookingId = booking.getId();
+        afterCommit(booking.getItem().getId(), intervals -> intervals.remove(bookingId));
+    }
+
+    private BookingIntervalSet intervals(long itemId) {
+        BookingIntervalSet loaded = null;
+        for (int attempt = 0; attempt < LOAD_ATTEMPTS; attempt++) {
+            BookingIntervalSet cached = items.getIfPresent(itemId);
+            if (cached != null) {
+                return cached;
+            }
+            // Запрос к базе идёт без блокировок кэша; результат кладётся, только если вещь за это время не менялась
+            long version = changes.get(stripeOf(itemId));
+            BookingIntervalSet fresh = load(itemId);
+            loaded = items.asMap().compute(itemId, (key, present) -> {
+                if (present != null) {
+                    return present;
+                }
+                return changes.get(stripeOf(key)) == version ? fresh : null;
+            });
+            if (loaded != null) {
+                return loaded;
+            }
+            loaded = fresh;
+            log.debug("Item id: {} changed while loading availability index, attempt {}", itemId, attempt + 1);
+        }
+        // Снимок свежее начала загрузки; проверка при бронировании идёт под блокировкой вещи и видит её изменения
+        return loaded;
+    }
+
+    private BookingIntervalSet load(long itemId) {
+        BookingIntervalSet intervals = new BookingIntervalSet();
+        for (BookingTimes booking : bookingRepository.findApprovedTimes(itemId)) {
+            intervals.add(booking.getId(), booking.getStartDate(), booking.getEndDate());
+        }
+        log.debug("Loaded {} approved bookings of item id: {} into availability index", intervals.size(), itemId);
+        return intervals;
+    }
+
+    private void afterCommit(long itemId, Consumer<BookingIntervalSet> change) {
+        // Невыгруженную вещь обновлять не нужно: при первом обращении она прочитает зафиксированное состояние
+        Runnable apply = () -> {
+            changes.incrementAndGet(stripeOf(itemId));
+            items.asMap().computeIfPresent(itemId, (key, intervals) -> {
+                change.accept(intervals);
+                return intervals;
+            });
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    // Вещь могла быть загружена внутри откаченной транзакции, её перечитаем при следующем обращении
+                    if (status == STATUS_ROLLED_BACK) {
+                        changes.incrementAndGet(stripeOf(itemId));
+                        items.invalidate(itemId);
+                    }
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private static int stripeOf(long itemId) {
+        return (int) Math.floorMod(itemId, (long) CHANGE_STRIPES);
+    }
+}
@@ -2,10 +2,15 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingIdsDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
 import ru.practicum.shareit.booking.dto.BookingInDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.export.BookingExporter;
 import ru.practicum.shareit.booking.service.BookingService;
 
 import java.util.List;
@@ -16,6 +21,7 @@ import java.util.List;
 @RequestMapping("/bookings")
 public class BookingController {
     private final BookingService bookingService;
+    private final BookingExporter bookingExporter;
     private static final String USER_HEADER = "X-Sharer-User-Id";
     private static final String BOOKING_ID_PATH = "/{booking-id}";
 
@@ -39,6 +45,18 @@ public class BookingController {
         return ResponseEntity.ok(bookingOutDto);
     }
 
+    @PatchMapping
+    public ResponseEntity<List<BookingStatusResultDto>> updateBookingStatuses(@RequestBody BookingIdsDto bookingIdsDto,
+                                                                              @RequestParam Boolean approved,
+                                                                              @RequestHeader(USER_HEADER) Long userId) {
+        log.info("Received bulk update booking status request for bookingIds: {} by user: {} with status: {}",
+                bookingIdsDto.getBookingIds(), userId, approved);
+        List<BookingStatusResultDto> results =
+                bookingService.updateBookingStatuses(userId, bookingIdsDto.getBookingIds(), approved);
+        log.info("Bulk booking status results: {}", results);
+        return ResponseEntity.ok(results);
+    }
+
     @GetMapping(BOOKING_ID_PATH)
     public ResponseEntity<BookingOutDto> getBooking(@PathVariable("booking-id") Long bookingId,
                                                     @RequestHeader(USER_HEADER) Long userId) {
@@ -51,19 +69,31 @@ public class BookingController {
     @GetMapping
     public ResponseEntity<List<BookingOutDto>> getBookings(
             @RequestParam(required = false, defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "0") int from,
+            @RequestParam(defaultValue = "10") int size,
             @RequestHeader(USER_HEADER) Long userId) {
-        log.info("Received get bookings request with state: {} by user: {}", state, userId);
-        List<BookingOutDto> bookings = bookingService.getBookings(userId, state);
+        log.info("Received get bookings request with state: {} by user: {}, from: {}, size: {}", state, userId, from, size);
+        List<BookingOutDto> bookings = bookingService.getBookings(userId, state, from, size);
         log.info("Retrieved bookings: {}", bookings);
         return ResponseEntity.ok(bookings);
     }
 
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBookings(@RequestHeader(USER_HEADER) Long userId) {
+        log.info("Received export bookings request by user: {}", userId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bookingExporter.exportBookings(userId));
+    }
+
     @GetMapping("/owner")
     public ResponseEntity<List<BookingOutDto>> getOwnerBookings(
             @RequestParam(required = false, defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "0") int from,
+            @RequestParam(defaultValue = "10") int size,
             @RequestHeader(USER_HEADER) Long ownerId) {
-        log.info("Received get owner bookings request with state: {} by owner: {}", state, ownerId);
-        List<BookingOutDto> bookings = bookingService.getOwnerBookings(ownerId, state);
+        log.info("Received get owner bookings request with state: {} by owner: {}, from: {}, size: {}", state, ownerId, from, size);
+        List<BookingOutDto> bookings = bookingService.getOwnerBookings(ownerId, state, from, size);
         log.info("Retrieved owner bookings: {}", bookings);
         return ResponseEntity.ok(bookings);
     }
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Итог смены статуса одного бронирования из пакета: code - HTTP-код, который вернул бы одиночный PATCH.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingStatusResultDto {
+    private Long bookingId;
+    private int code;
+    private String error;
+    private BookingOutDto booking;
+}
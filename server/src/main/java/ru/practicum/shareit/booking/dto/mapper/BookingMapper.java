@@ -7,21 +7,32 @@ import ru.practicum.shareit.booking.dto.BookingInDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
 import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDetails;
+import ru.practicum.shareit.booking.model.BookingView;
 import ru.practicum.shareit.booking.model.LastBooking;
 import ru.practicum.shareit.booking.model.NextBooking;
-import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.pointer.ItemBookingPointers;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Slf4j
 @AllArgsConstructor
 public class BookingMapper {
 
-    private final BookingRepository bookingRepository;
+    private final ItemBookingPointers itemBookingPointers;
 
     public static Booking toEntity(BookingInDto bookingRequestDto, Item item, User booker) {
         if (bookingRequestDto == null) {
@@ -54,33 +65,94 @@ public class BookingMapper {
             log.warn("Attempted to convert null booking to BookingResponseDto");
             return null;
         }
+        return toResponseDtos(List.of(booking)).get(0);
+    }
+
+    /**
+     * Собирает ответ по списку бронирований: следующее и последнее бронирование
+     * читаются из item_booking_pointers одним запросом на все вещи списка.
+     */
+    public List<BookingOutDto> toResponseDtos(Collection<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> itemIds = bookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet());
+        Map<Long, BookingDetails> bookingDetails = itemBookingPointers.find(itemIds);
+
+        List<BookingOutDto> result = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            Item item = booking.getItem();
+            BookingDetails details = bookingDetails.get(item.getId());
+            result.add(BookingOutDto.builder()
+                    .id(booking.getId())
+                    .start(booking.getStartDate())
+                    .end(booking.getEndDate())
+                    .item(ItemMapper.toDto(item, details.nextBooking(), details.lastBooking()))
+                    .booker(UserMapper.toDto(booking.getBooker()))
+                    .status(booking.getStatus())
+                    .build());
+        }
+        log.debug("Converted {} bookings for {} items to BookingResponseDto", result.size(), itemIds.size());
+        return result;
+    }
+
+    /**
+     * Собирает ответ по строкам проекции; указатели берутся из той же строки,
+     * и только для вещей без актуальной записи читаются через ItemBookingPointers.
+     */
+    public List<BookingOutDto> toViewDtos(Collection<BookingView> views) {
+        if (views.isEmpty()) {
+            return List.of();
+        }
 
-        Item item = booking.getItem();
         LocalDateTime now = LocalDateTime.now();
+        Set<Long> staleItemIds = views.stream()
+                .filter(view -> isStale(view, now))
+                .map(BookingView::itemId)
+                .collect(Collectors.toSet());
+        Map<Long, BookingDetails> refreshed = itemBookingPointers.find(staleItemIds);
 
-        Booking nextBookingEntity = bookingRepository.findByItem_IdAndStartDateAfterOrderByStartDateAsc(item.getId(), now)
-                .stream()
-                .findFirst()
-                .orElse(null);
-
-        Booking lastBookingEntity = bookingRepository.findByItem_IdAndEndDateBeforeOrderByEndDateDesc(item.getId(), now)
-                .stream()
-                .findFirst()
-                .orElse(null);
-
-        NextBooking nextBooking = nextBookingEntity != null ? new NextBooking(nextBookingEntity.getId(), nextBookingEntity.getBooker().getId()) : null;
-        LastBooking lastBooking = lastBookingEntity != null ? new LastBooking(lastBookingEntity.getId(), lastBookingEntity.getBooker().getId()) : null;
-
-        BookingOutDto bookingResponseDto = BookingOutDto.builder()
-                .id(booking.getId())
-                .start(booking.getStartDate())
-                .end(booking.getEndDate())
-                .item(ItemMapper.toDto(item, nextBooking, lastBooking))
-                .booker(UserMapper.toDto(booking.getBooker()))
-                .status(booking.getStatus())
+        List<BookingOutDto> result = new ArrayList<>(views.size());
+        for (BookingView view : views) {
+            BookingDetails details = refreshed.containsKey(view.itemId())
+                    ? refreshed.get(view.itemId()) : toDetails(view);
+            result.add(toViewDto(view, details));
+        }
+        log.debug("Converted {} booking views, {} items with stale pointers", result.size(), staleItemIds.size());
+        return result;
+    }
+
+    public static BookingOutDto toViewDto(BookingView view, BookingDetails details) {
+        return BookingOutDto.builder()
+                .id(view.id())
+                .start(view.startDate())
+                .end(view.endDate())
+                .item(new ItemDto(view.itemId(), view.itemName(), view.itemDescription(), view.itemAvailable(),
+                        view.itemOwnerId(), view.itemRequestId(), details.nextBooking(), details.lastBooking(),
+                        Collections.emptyList()))
+                .booker(new UserDto(view.bookerId(), view.bookerName(), view.bookerEmail()))
+                .status(view.status())
                 .build();
+    }
+
+    /**
+     * Указатели из строки проекции, если они ещё действительны на момент now, иначе пустые детали.
+     */
+    public static BookingDetails storedDetails(BookingView view, LocalDateTime now) {
+        return isStale(view, now) ? new BookingDetails(null, null) : toDetails(view);
+    }
+
+    private static boolean isStale(BookingView view, LocalDateTime now) {
+        return view.pointerItemId() == null
+                || view.pointerValidUntil() != null && !now.isBefore(view.pointerValidUntil());
+    }
 
-        log.info("Converted Booking to BookingResponseDto: {}", bookingResponseDto);
-        return bookingResponseDto;
+    private static BookingDetails toDetails(BookingView view) {
+        return new BookingDetails(
+                view.lastBookingId() != null ? new LastBooking(view.lastBookingId(), view.lastBookerId()) : null,
+                view.nextBookingId() != null ? new NextBooking(view.nextBookingId(), view.nextBookerId()) : null);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.booking.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.pointer.ItemBookingPointers;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.error.exception.NotFoundException;
+import ru.practicum.shareit.user.cache.UserCache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Выгрузка всей истории бронирований арендатора в NDJSON. Строки читаются курсором в транзакции только
+ * для чтения и пишутся в ответ по мере чтения, поэтому память не зависит от длины истории.
+ * Указатели вещей берутся из item_booking_pointers; устаревшие пересчитываются до начала чтения отдельными
+ * короткими транзакциями, поэтому на момент выгрузки все указатели действительны.
+ */
+@Slf4j
+@Component
+public class BookingExporter {
+    private static final int FLUSH_EVERY = 500;
+
+    private final BookingRepository bookingRepository;
+    private final ItemBookingPointers itemBookingPointers;
+    private final UserCache userCache;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public BookingExporter(BookingRepository bookingRepository,
+                           ItemBookingPointers itemBookingPointers,
+                           UserCache userCache,
+                           ObjectMapper objectMapper,
+                           PlatformTransactionManager transactionManager) {
+        this.bookingRepository = bookingRepository;
+        this.itemBookingPointers = itemBookingPointers;
+        this.userCache = userCache;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Проверяет пользователя сразу, пока ответ ещё можно вернуть с кодом ошибки; сами строки пишутся позже.
+     */
+    public StreamingResponseBody exportBookings(Long userId) {
+        if (!userCache.exists(userId)) {
+            log.error("User not found with id: {}", userId);
+            throw new NotFoundException("User not found");
+        }
+        return out -> {
+            LocalDateTime now = LocalDateTime.now();
+            // Вне транзакции выгрузки: она только для чтения и держит курсор открытым всё время ответа
+            itemBookingPointers.refreshStaleOfBooker(userId, now);
+            try {
+                long written = transactionTemplate.execute(status -> write(userId, out, now));
+                log.info("Exported {} bookings of user id: {}", written, userId);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    private long write(Long userId, OutputStream out, LocalDateTime now) {
+        long written = 0;
+        try (Stream<BookingView> views = bookingRepository.streamBookerAll(userId);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // Строки NDJSON разделяются только переводом строки, без пробела между корневыми значениями
+            generator.setRootValueSeparator(null);
+            Iterator<BookingView> iterator = views.iterator();
+            while (iterator.hasNext()) {
+                BookingView view = iterator.next();
+                generator.writeObject(BookingMapper.toViewDto(view, BookingMapper.storedDetails(view, now)));
+                generator.writeRaw('\n');
+                if (++written % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return written;
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.booking.lifecycle")
+public class BookingLifecycleProperties {
+    private boolean enabled = true;
+
+    // Как часто обрабатываются наступившие события и продлевается аренда
+    private Duration tickInterval = Duration.ofSeconds(1);
+
+    // Очередь событий перечитывается из базы с этим периодом и на horizon вперёд
+    private Duration reloadInterval = Duration.ofMinutes(1);
+
+    private Duration horizon = Duration.ofMinutes(5);
+
+    // Сколько бронирование может ждать подтверждения после своего начала, прежде чем будет отменено
+    private Duration waitingGracePeriod = Duration.ofHours(1);
+
+    private Duration leaseTtl = Duration.ofSeconds(30);
+
+    private int batchSize = 500;
+}
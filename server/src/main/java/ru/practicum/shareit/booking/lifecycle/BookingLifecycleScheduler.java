@@ -0,0 +1,297 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.availability.ItemBookingLocks;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingTimes;
+import ru.practicum.shareit.booking.pointer.ItemBookingPointers;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Обрабатывает бронирования по времени: отменяет не подтверждённые вовремя, а при начале и окончании
+ * подтверждённых пересчитывает указатели вещей и сбрасывает их кэш.
+ * События на horizon вперёд держатся в очереди по времени и перечитываются из базы раз в reloadInterval;
+ * изменения этого экземпляра добавляются в очередь сразу после фиксации.
+ * Работает только экземпляр, владеющий арендой booking-lifecycle.
+ */
+@Slf4j
+@Component
+public class BookingLifecycleScheduler {
+    private static final String LEASE_NAME = "booking-lifecycle";
+
+    private final BookingLifecycleProperties properties;
+    private final BookingRepository bookingRepository;
+    private final ItemBookingPointers itemBookingPointers;
+    private final ItemBookingLocks itemBookingLocks;
+    private final ItemDetailsCache itemDetailsCache;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLease lease;
+    private final PriorityQueue<LifecycleEvent> queue = new PriorityQueue<>(LifecycleEvent.BY_TIME);
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "booking-lifecycle");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private boolean leader;
+    private LocalDateTime nextReload;
+    // Под монитором queue: события до lastFired обработаны, события до loadedUntil загружены
+    private LocalDateTime lastFired;
+    private LocalDateTime loadedUntil;
+
+    public BookingLifecycleScheduler(BookingLifecycleProperties properties,
+                                     BookingRepository bookingRepository,
+                                     ItemBookingPointers itemBookingPointers,
+                                     ItemBookingLocks itemBookingLocks,
+                                     ItemDetailsCache itemDetailsCache,
+                                     JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.bookingRepository = bookingRepository;
+        this.itemBookingPointers = itemBookingPointers;
+        this.itemBookingLocks = itemBookingLocks;
+        this.itemDetailsCache = itemDetailsCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lease = new SchedulerLease(jdbcTemplate, LEASE_NAME, instanceName(), properties.getLeaseTtl());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("Booking lifecycle scheduler is disabled");
+            return;
+        }
+        long interval = properties.getTickInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::tickSafely, 0, interval, TimeUnit.MILLISECONDS);
+        log.info("Booking lifecycle scheduler started as {}", lease.getOwner());
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+        if (leader) {
+            lease.release();
+        }
+    }
+
+    /**
+     * Добавляет в очередь события бронирования после фиксации транзакции, которая его создала или изменила.
+     */
+    public void scheduled(Booking booking) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(eventsOf(booking.getId(), booking.getItem().getId(),
+                            booking.getStartDate(), booking.getEndDate(), booking.getStatus()));
+                }
+            });
+        } else {
+            enqueue(eventsOf(booking.getId(), booking.getItem().getId(),
+                    booking.getStartDate(), booking.getEndDate(), booking.getStatus()));
+        }
+    }
+
+    void tick() {
+        if (!lease.tryAcquire()) {
+            if (leader) {
+                log.warn("Lost booking lifecycle lease, another instance took over");
+                leader = false;
+                synchronized (queue) {
+                    queue.clear();
+                    loadedUntil = null;
+                }
+            }
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!leader) {
+            log.info("Acquired booking lifecycle lease");
+            leader = true;
+            nextReload = now;
+            synchronized (queue) {
+                lastFired = now;
+            }
+        }
+        if (!now.isBefore(nextReload)) {
+            reload(now);
+            nextReload = now.plus(properties.getReloadInterval());
+        }
+        fireDue(now);
+    }
+
+    private void tickSafely() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            log.warn("Booking lifecycle tick failed", e);
+        }
+    }
+
+    private void reload(LocalDateTime now) {
+        // Догоняем пропущенное, пока аренды ни у кого не было или изменения пришли с других экземпляров
+        expireStaleWaiting(now);
+        itemBookingPointers.sweep();
+
+        LocalDateTime from;
+        synchronized (queue) {
+            from = lastFired;
+        }
+        LocalDateTime until = now.plus(properties.getHorizon());
+        List<LifecycleEvent> events = new ArrayList<>();
+        for (BookingTimes booking : bookingRepository.findApprovedChangingBetween(from, until)) {
+            events.addAll(eventsOf(booking));
+        }
+        for (BookingTimes booking : bookingRepository.findWaitingStartingBetween(
+                from.minus(properties.getWaitingGracePeriod()), until.minus(properties.getWaitingGracePeriod()))) {
+            events.addAll(eventsOf(booking));
+        }
+
+        synchronized (queue) {
+            // Снимок читался без монитора: события, добавленные после фиксации за это время, в нём могло не оказаться,
+            // поэтому очередь не заменяется, а объединяется со снимком без повторов по бронированию и типу события
+            Map<EventKey, LifecycleEvent> merged = new HashMap<>();
+            events.forEach(event -> merged.put(EventKey.of(event), event));
+            queue.forEach(event -> merged.putIfAbsent(EventKey.of(event), event));
+            queue.clear();
+            loadedUntil = until;
+            merged.values().forEach(this::offer);
+        }
+        log.debug("Loaded {} booking lifecycle events until {}", events.size(), until);
+    }
+
+    private void fireDue(LocalDateTime now) {
+        while (true) {
+            List<LifecycleEvent> due = new ArrayList<>();
+            synchronized (queue) {
+                while (!queue.isEmpty() && !queue.peek().at().isAfter(now) && due.size() < properties.getBatchSize()) {
+                    due.add(queue.poll());
+                }
+                if (due.isEmpty()) {
+                    lastFired = now;
+                    return;
+                }
+            }
+            apply(due, now);
+        }
+    }
+
+    private void expireStaleWaiting(LocalDateTime now) {
+        LocalDateTime cutoff = now.minus(properties.getWaitingGracePeriod());
+        List<BookingTimes> stale;
+        do {
+            stale = bookingRepository.findWaitingStartedBefore(cutoff, PageRequest.of(0, properties.getBatchSize()));
+            List<LifecycleEvent> events = new ArrayList<>();
+            stale.forEach(booking -> events.addAll(eventsOf(booking)));
+            if (!events.isEmpty()) {
+                apply(events, now);
+            }
+        } while (stale.size() == properties.getBatchSize());
+    }
+
+    /**
+     * Применяет пачку наступивших событий одной транзакцией под блокировками затронутых вещей.
+     */
+    private void apply(List<LifecycleEvent> events, LocalDateTime now) {
+        Set<Long> expiredIds = new HashSet<>();
+        Set<Long> changedItemIds = new HashSet<>();
+        Set<Long> itemIds = new HashSet<>();
+        for (LifecycleEvent event : events) {
+            itemIds.add(event.itemId());
+            if (event.type() == LifecycleEvent.Type.EXPIRE) {
+                expiredIds.add(event.bookingId());
+            } else {
+                changedItemIds.add(event.itemId());
+            }
+        }
+
+        int canceled = transactionTemplate.execute(status -> {
+            itemBookingLocks.lockAllUntilCompletion(itemIds);
+            int count = expiredIds.isEmpty() ? 0 : bookingRepository.cancelWaiting(expiredIds,
+                    now.minus(properties.getWaitingGracePeriod()));
+            if (!changedItemIds.isEmpty()) {
+                itemBookingPointers.refresh(changedItemIds);
+            }
+            return count;
+        });
+        itemIds.forEach(itemDetailsCache::evictBookings);
+        log.info("Applied {} booking lifecycle events: {} bookings canceled, {} items refreshed",
+                events.size(), canceled, changedItemIds.size());
+    }
+
+    private void enqueue(List<LifecycleEvent> events) {
+        synchronized (queue) {
+            if (loadedUntil == null) {
+                return;
+            }
+            events.forEach(this::offer);
+        }
+    }
+
+    // Вызывается под монитором queue; события вне загруженного окна подхватит следующая загрузка
+    private void offer(LifecycleEvent event) {
+        if (event.at().isAfter(lastFired) && !event.at().isAfter(loadedUntil)) {
+            queue.add(event);
+        }
+    }
+
+    private List<LifecycleEvent> eventsOf(BookingTimes booking) {
+        return eventsOf(booking.getId(), booking.getItemId(), booking.getStartDate(), booking.getEndDate(),
+                booking.getStatus());
+    }
+
+    private List<LifecycleEvent> eventsOf(long bookingId, long itemId, LocalDateTime start, LocalDateTime end,
+                                          Status status) {
+        return switch (status) {
+            case APPROVED -> List.of(
+                    new LifecycleEvent(start, bookingId, itemId, LifecycleEvent.Type.START),
+                    new LifecycleEvent(end, bookingId, itemId, LifecycleEvent.Type.END));
+            case WAITING -> List.of(new LifecycleEvent(start.plus(properties.getWaitingGracePeriod()),
+                    bookingId, itemId, LifecycleEvent.Type.EXPIRE));
+            default -> List.of();
+        };
+    }
+
+    private record EventKey(long bookingId, LifecycleEvent.Type type) {
+        static EventKey of(LifecycleEvent event) {
+            return new EventKey(event.bookingId(), event.type());
+        }
+    }
+
+    private static String instanceName() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "/" + UUID.randomUUID();
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+record LifecycleEvent(LocalDateTime at, long bookingId, long itemId, Type type) {
+    static final Comparator<LifecycleEvent> BY_TIME = Comparator.comparing(LifecycleEvent::at)
+            .thenComparingLong(LifecycleEvent::bookingId);
+
+    enum Type {
+        // Подтверждённое бронирование началось или завершилось
+        START,
+        END,
+        // Ожидающее бронирование не подтвердили до начала и истечения отсрочки
+        EXPIRE
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Аренда в таблице scheduler_leases: фоновую работу выполняет только экземпляр, продливший аренду последним.
+ * Сроки считаются по часам базы, чтобы расхождение часов серверов не давало двух владельцев сразу.
+ */
+@Slf4j
+public class SchedulerLease {
+    private final JdbcTemplate jdbcTemplate;
+    private final String name;
+    private final String owner;
+    private final Duration ttl;
+
+    public SchedulerLease(JdbcTemplate jdbcTemplate, String name, String owner, Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.name = name;
+        this.owner = owner;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Захватывает свободную или истёкшую аренду либо продлевает свою.
+     */
+    public boolean tryAcquire() {
+        LocalDateTime now = databaseTime();
+        Timestamp expiresAt = Timestamp.valueOf(now.plus(ttl));
+        int updated = jdbcTemplate.update("UPDATE scheduler_leases SET lease_owner = ?, expires_at = ? " +
+                        "WHERE name = ? AND (lease_owner = ? OR lease_owner IS NULL OR expires_at < ?)",
+                owner, expiresAt, name, owner, Timestamp.valueOf(now));
+        if (updated == 1) {
+            return true;
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO scheduler_leases (name, lease_owner, expires_at) VALUES (?, ?, ?)",
+                    name, owner, expiresAt);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    public void release() {
+        jdbcTemplate.update("UPDATE scheduler_leases SET lease_owner = NULL, expires_at = NULL " +
+                "WHERE name = ? AND lease_owner = ?", name, owner);
+        log.info("Released lease {} held by {}", name, owner);
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    private LocalDateTime databaseTime() {
+        return jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", Timestamp.class).toLocalDateTime();
+    }
+}
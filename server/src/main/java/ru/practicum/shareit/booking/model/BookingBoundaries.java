@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.model;
+
+import java.time.LocalDateTime;
+
+public interface BookingBoundaries {
+    Long getItemId();
+
+    LocalDateTime getNextStart();
+
+    LocalDateTime getNextEnd();
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.model;
+
+public interface BookingSummary {
+    Long getItemId();
+
+    Long getId();
+
+    Long getBookerId();
+}
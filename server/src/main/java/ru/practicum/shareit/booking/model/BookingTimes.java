@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.model;
+
+import ru.practicum.shareit.booking.enums.Status;
+
+import java.time.LocalDateTime;
+
+public interface BookingTimes {
+    Long getId();
+
+    Long getItemId();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+
+    Status getStatus();
+}
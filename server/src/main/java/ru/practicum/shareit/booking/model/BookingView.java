@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.model;
+
+import ru.practicum.shareit.booking.enums.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка списка бронирований: ровно те столбцы, что попадают в ответ, вместе с указателями вещи
+ * из item_booking_pointers. pointerItemId пуст, если запись указателей для вещи ещё не создана.
+ */
+public record BookingView(Long id,
+                          LocalDateTime startDate,
+                          LocalDateTime endDate,
+                          Status status,
+                          Long itemId,
+                          String itemName,
+                          String itemDescription,
+                          Boolean itemAvailable,
+                          Long itemOwnerId,
+                          Long itemRequestId,
+                          Long bookerId,
+                          String bookerName,
+                          String bookerEmail,
+                          Long pointerItemId,
+                          Long lastBookingId,
+                          Long lastBookerId,
+                          Long nextBookingId,
+                          Long nextBookerId,
+                          LocalDateTime pointerValidUntil) {
+}
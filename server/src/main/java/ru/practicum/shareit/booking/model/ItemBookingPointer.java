@@ -0,0 +1,44 @@
+package ru.practicum.shareit.booking.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Последнее и следующее подтверждённые бронирования вещи, рассчитанные заранее.
+ * После validUntil одно из них начинается или завершается, и запись нужно пересчитать.
+ */
+@Entity
+@Table(name = "item_booking_pointers")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ItemBookingPointer {
+
+    @Id
+    @Column(name = "item_id")
+    Long itemId;
+
+    @Column(name = "last_booking_id")
+    Long lastBookingId;
+
+    @Column(name = "last_booker_id")
+    Long lastBookerId;
+
+    @Column(name = "next_booking_id")
+    Long nextBookingId;
+
+    @Column(name = "next_booker_id")
+    Long nextBookerId;
+
+    @Column(name = "valid_until")
+    LocalDateTime validUntil;
+}
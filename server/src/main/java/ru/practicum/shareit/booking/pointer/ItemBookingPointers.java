@@ -0,0 +1,214 @@
+package ru.practicum.shareit.booking.pointer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.availability.ItemBookingLocks;
+import ru.practicum.shareit.booking.model.BookingBoundaries;
+import ru.practicum.shareit.booking.model.BookingDetails;
+import ru.practicum.shareit.booking.model.BookingSummary;
+import ru.practicum.shareit.booking.model.ItemBookingPointer;
+import ru.practicum.shareit.booking.model.LastBooking;
+import ru.practicum.shareit.booking.model.NextBooking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingPointerRepository;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Последнее завершившееся и ближайшее будущее подтверждённые бронирования вещей, хранящиеся в item_booking_pointers.
+ * Пустая запись создаётся вместе с вещью и пересчитывается в транзакции, изменившей подтверждённые бронирования
+ * вещи, а по наступлении её validUntil - планировщиком жизненного цикла бронирований. Перед пересчётом строки вещей
+ * блокируются в базе (select ... for update), поэтому пересчёты одной вещи на разных экземплярах сервера идут
+ * по очереди, и каждый читает бронирования, зафиксированные предыдущим. Чтение ничего не блокирует и не пишет:
+ * устаревшую до прихода планировщика запись оно рассчитывает заново только для ответа.
+ */
+@Slf4j
+@Component
+public class ItemBookingPointers {
+    private final ItemBookingPointerRepository pointerRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final ItemBookingLocks itemBookingLocks;
+    private final ItemDetailsCache itemDetailsCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int sweepBatchSize;
+
+    public ItemBookingPointers(ItemBookingPointerRepository pointerRepository,
+                               BookingRepository bookingRepository,
+                               ItemRepository itemRepository,
+                               ItemBookingLocks itemBookingLocks,
+                               ItemDetailsCache itemDetailsCache,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${shareit.booking.pointers.sweep-batch-size:500}") int sweepBatchSize) {
+        this.pointerRepository = pointerRepository;
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.itemBookingLocks = itemBookingLocks;
+        this.itemDetailsCache = itemDetailsCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    public BookingDetails find(Long itemId) {
+        return find(List.of(itemId)).get(itemId);
+    }
+
+    /**
+     * Возвращает детали бронирований для каждой из вещей; для отсутствующих и устаревших записей
+     * они рассчитываются по бронированиям, но не сохраняются.
+     */
+    public Map<Long, BookingDetails> find(Collection<Long> itemIds) {
+        Map<Long, BookingDetails> result = new HashMap<>();
+        if (itemIds.isEmpty()) {
+            return result;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> stale = new LinkedHashSet<>(itemIds);
+        for (ItemBookingPointer pointer : pointerRepository.findAllById(itemIds)) {
+            if (pointer.getValidUntil() == null || now.isBefore(pointer.getValidUntil())) {
+                result.put(pointer.getItemId(), toDetails(pointer));
+                stale.remove(pointer.getItemId());
+            }
+        }
+        if (!stale.isEmpty()) {
+            log.debug("Computing {} missing or stale booking pointers on read", stale.size());
+            compute(stale, now).forEach(pointer -> result.put(pointer.getItemId(), toDetails(pointer)));
+        }
+        return result;
+    }
+
+    /**
+     * Пересчитывает записи вещей. Вызывается в транзакции, изменившей их бронирования,
+     * чтобы запись зафиксировалась или откатилась вместе с ними.
+     */
+    public List<ItemBookingPointer> refresh(Collection<Long> itemIds) {
+        return transactionTemplate.execute(status -> {
+            itemBookingLocks.lockAllUntilCompletion(itemIds);
+            // Строка вещи существует всегда, в отличие от записи указателя, поэтому блокируется она
+            itemRepository.lockAllById(itemIds);
+            List<ItemBookingPointer> pointers = compute(itemIds, LocalDateTime.now());
+            return pointerRepository.saveAll(pointers);
+        });
+    }
+
+    public void refresh(Long itemId) {
+        refresh(List.of(itemId));
+    }
+
+    /**
+     * Создаёт пустые записи новых вещей: бронирований у них ещё нет, и запись действительна до первого подтверждения.
+     */
+    public void create(Collection<Long> itemIds) {
+        if (!itemIds.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> pointerRepository.insertEmpty(itemIds));
+        }
+    }
+
+    /**
+     * Пересчитывает записи, у которых наступил validUntil: следующее бронирование началось
+     * или одно из подтверждённых завершилось.
+     */
+    public int sweep() {
+        int swept = 0;
+        List<Long> itemIds;
+        do {
+            itemIds = pointerRepository.findStaleItemIds(LocalDateTime.now(), PageRequest.of(0, sweepBatchSize));
+            if (!itemIds.isEmpty()) {
+                refresh(itemIds);
+                itemIds.forEach(itemDetailsCache::evictBookings);
+                swept += itemIds.size();
+            }
+        } while (itemIds.size() == sweepBatchSize);
+        if (swept > 0) {
+            log.info("Swept {} item booking pointers", swept);
+        }
+        return swept;
+    }
+
+    /**
+     * Пересчитывает отсутствующие и устаревшие записи вещей, которые бронировал пользователь,
+     * так что все они действительны на момент now.
+     */
+    public int refreshStaleOfBooker(Long bookerId, LocalDateTime now) {
+        int refreshed = 0;
+        List<Long> itemIds;
+        do {
+            itemIds = bookingRepository.findItemIdsWithStalePointers(bookerId, now,
+                    PageRequest.of(0, sweepBatchSize));
+            if (!itemIds.isEmpty()) {
+                refresh(itemIds);
+                itemIds.forEach(itemDetailsCache::evictBookings);
+                refreshed += itemIds.size();
+            }
+        } while (itemIds.size() == sweepBatchSize);
+        if (refreshed > 0) {
+            log.debug("Refreshed {} booking pointers of booker id: {}", refreshed, bookerId);
+        }
+        return refreshed;
+    }
+
+    private List<ItemBookingPointer> compute(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, BookingSummary> lastBookings = byItemId(bookingRepository.findLastApprovedBookings(itemIds, now),
+                BookingSummary::getItemId);
+        Map<Long, BookingSummary> nextBookings = byItemId(bookingRepository.findNextApprovedBookings(itemIds, now),
+                BookingSummary::getItemId);
+        Map<Long, BookingBoundaries> boundaries = byItemId(bookingRepository.findApprovedBoundaries(itemIds, now),
+                BookingBoundaries::getItemId);
+
+        List<ItemBookingPointer> pointers = new ArrayList<>(itemIds.size());
+        for (Long itemId : itemIds) {
+            BookingSummary last = lastBookings.get(itemId);
+            BookingSummary next = nextBookings.get(itemId);
+            pointers.add(ItemBookingPointer.builder()
+                    .itemId(itemId)
+                    .lastBookingId(last != null ? last.getId() : null)
+                    .lastBookerId(last != null ? last.getBookerId() : null)
+                    .nextBookingId(next != null ? next.getId() : null)
+                    .nextBookerId(next != null ? next.getBookerId() : null)
+                    .validUntil(validUntil(boundaries.get(itemId)))
+                    .build());
+        }
+        return pointers;
+    }
+
+    private static LocalDateTime validUntil(BookingBoundaries boundaries) {
+        if (boundaries == null) {
+            // Незавершённых подтверждённых бронирований нет, запись меняется только при смене статуса
+            return null;
+        }
+        LocalDateTime nextStart = boundaries.getNextStart();
+        LocalDateTime nextEnd = boundaries.getNextEnd();
+        if (nextStart == null || nextEnd.isBefore(nextStart)) {
+            return nextEnd;
+        }
+        return nextStart;
+    }
+
+    private static BookingDetails toDetails(ItemBookingPointer pointer) {
+        return new BookingDetails(
+                pointer.getLastBookingId() != null
+                        ? new LastBooking(pointer.getLastBookingId(), pointer.getLastBookerId()) : null,
+                pointer.getNextBookingId() != null
+                        ? new NextBooking(pointer.getNextBookingId(), pointer.getNextBookerId()) : null);
+    }
+
+    private static <T> Map<Long, T> byItemId(List<T> rows, Function<T, Long> itemId) {
+        return rows.stream().collect(Collectors.toMap(itemId, Function.identity()));
+    }
+}
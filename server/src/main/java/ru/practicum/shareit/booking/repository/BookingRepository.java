@@ -1,14 +1,29 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Sort;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingBoundaries;
+import ru.practicum.shareit.booking.model.BookingSummary;
+import ru.practicum.shareit.booking.model.BookingTimes;
+import ru.practicum.shareit.booking.model.BookingView;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
@@ -22,34 +37,160 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                                          @Param(value = "start") LocalDateTime start,
                                          @Param(value = "end") LocalDateTime end);
 
-    List<Booking> findByItem_IdInAndStartDateIsBeforeAndEndDateIsAfter(List<Long> itemIds, LocalDateTime start, LocalDateTime end, Sort sort);
-
-    List<Booking> findByItem_IdInAndEndDateIsBefore(List<Long> itemIds, LocalDateTime endDate, Sort sort);
-
-    List<Booking> findByItem_IdInAndStartDateIsAfter(List<Long> itemIds, LocalDateTime start, Sort sort);
-
-    List<Booking> findByStatusAndItem_IdIn(Status status, List<Long> itemIds, Sort sort);
-
-    List<Booking> findByItem_IdIn(List<Long> itemIds, Sort sort);
-
-    List<Booking> findByStatusAndBooker_Id(Status status, Long bookerId, Sort sort);
-
-    List<Booking> findByBooker_IdAndStartDateAfter(Long bookerId, LocalDateTime startDate, Sort sort);
-
-    List<Booking> findByBooker_IdAndEndDateBefore(Long bookerId, LocalDateTime endDate, Sort sort);
-
-    List<Booking> findByBooker_IdAndStartDateBeforeAndEndDateAfter(Long bookerId, LocalDateTime startDate, LocalDateTime endDate, Sort sort);
-
-    List<Booking> findByBooker_Id(Long bookerId, Sort sort);
-
-    List<Booking> findByItem_IdAndStartDateAfterOrderByStartDateAsc(Long itemId, LocalDateTime start);
-
-    List<Booking> findByItem_IdAndEndDateBeforeOrderByEndDateDesc(Long itemId, LocalDateTime end);
+    // Списки бронирований читаются одним запросом: бронирование, вещь, арендатор и указатели вещи
+    String BOOKING_VIEW = "select new ru.practicum.shareit.booking.model.BookingView(" +
+            "b.id, b.startDate, b.endDate, b.status, " +
+            "i.id, i.name, i.description, i.isAvailable, i.owner.id, i.request.id, " +
+            "u.id, u.name, u.email, " +
+            "p.itemId, p.lastBookingId, p.lastBookerId, p.nextBookingId, p.nextBookerId, p.validUntil) " +
+            "from Booking b join b.item i join b.booker u " +
+            "left join ItemBookingPointer p on p.itemId = i.id ";
+
+    @Query(BOOKING_VIEW + "where i.owner.id = :ownerId and b.startDate < :now and b.endDate > :now")
+    Slice<BookingView> findOwnerCurrent(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now,
+                                        Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where i.owner.id = :ownerId and b.endDate < :now")
+    Slice<BookingView> findOwnerPast(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now,
+                                     Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where i.owner.id = :ownerId and b.startDate > :now")
+    Slice<BookingView> findOwnerFuture(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now,
+                                       Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where i.owner.id = :ownerId and b.status = :status")
+    Slice<BookingView> findOwnerByStatus(@Param("ownerId") Long ownerId, @Param("status") Status status,
+                                         Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where i.owner.id = :ownerId")
+    Slice<BookingView> findOwnerAll(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where u.id = :bookerId and b.startDate < :now and b.endDate > :now")
+    Slice<BookingView> findBookerCurrent(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now,
+                                         Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where u.id = :bookerId and b.endDate < :now")
+    Slice<BookingView> findBookerPast(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now,
+                                      Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where u.id = :bookerId and b.startDate > :now")
+    Slice<BookingView> findBookerFuture(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now,
+                                        Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where u.id = :bookerId and b.status = :status")
+    Slice<BookingView> findBookerByStatus(@Param("bookerId") Long bookerId, @Param("status") Status status,
+                                          Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where u.id = :bookerId")
+    Slice<BookingView> findBookerAll(@Param("bookerId") Long bookerId, Pageable pageable);
+
+    // Вся история арендатора читается курсором порциями по 500 строк, без загрузки в память целиком
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query(BOOKING_VIEW + "where u.id = :bookerId order by b.startDate desc, b.id desc")
+    Stream<BookingView> streamBookerAll(@Param("bookerId") Long bookerId);
+
+    // Вещи арендатора, у которых запись в item_booking_pointers отсутствует или недействительна на момент now
+    @Query("select distinct b.item.id from Booking b " +
+            "where b.booker.id = :bookerId and not exists (select p.itemId from ItemBookingPointer p " +
+            "where p.itemId = b.item.id and (p.validUntil is null or p.validUntil > :now)) " +
+            "order by b.item.id")
+    List<Long> findItemIdsWithStalePointers(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now,
+                                            Pageable page);
+
+    // Ответ по одному бронированию строится из самого бронирования, вещи и арендатора
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findWithItemAndBookerById(Long id);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findWithItemAndBookerByIdIn(Collection<Long> ids);
+
+    @Query("select b.item.id from Booking b where b.id = :bookingId")
+    Optional<Long> findItemIdById(@Param("bookingId") Long bookingId);
+
+    @Query("select b.item.id as itemId, b.id as id, b.booker.id as bookerId from Booking b where b.id in :bookingIds")
+    List<BookingSummary> findSummariesByIds(@Param("bookingIds") Collection<Long> bookingIds);
 
     boolean existsByItemIdAndBookerIdAndEndDateBefore(Long itemId, Long bookerId, LocalDateTime endDate);
 
     List<Booking> findByItem_IdAndStatusOrderByStartDateAsc(Long itemId, Status bookingStatus);
 
-    List<Booking> findByItem_IdAndStatusOrderByEndDateDesc(Long itemId, Status status);
+    @Query("select b.id as id, b.item.id as itemId, b.startDate as startDate, b.endDate as endDate, b.status as status " +
+            "from Booking b " +
+            "where b.item.id = :itemId and b.status = ru.practicum.shareit.booking.enums.Status.APPROVED")
+    List<BookingTimes> findApprovedTimes(@Param("itemId") long itemId);
+
+    // Последнее подтверждённое бронирование по каждой вещи; единственное бронирование вещи считается последним
+    @Query(value = "SELECT t.item_id AS itemId, t.id AS id, t.booker_id AS bookerId " +
+            "FROM (SELECT c.item_id, c.id, c.booker_id, " +
+            "ROW_NUMBER() OVER (PARTITION BY c.item_id ORDER BY c.end_date DESC, c.id DESC) AS rn " +
+            "FROM (SELECT b.item_id, b.id, b.booker_id, b.end_date, " +
+            "COUNT(*) OVER (PARTITION BY b.item_id) AS approved_count " +
+            "FROM bookings b " +
+            "WHERE b.item_id IN (:itemIds) AND b.status = 'APPROVED') c " +
+            "WHERE c.end_date < :now OR c.approved_count = 1) t " +
+            "WHERE t.rn = 1", nativeQuery = true)
+    List<BookingSummary> findLastApprovedBookings(@Param("itemIds") Collection<Long> itemIds,
+                                                  @Param("now") LocalDateTime now);
+
+    // Ближайшее будущее подтверждённое бронирование по каждой вещи
+    @Query(value = "SELECT t.item_id AS itemId, t.id AS id, t.booker_id AS bookerId " +
+            "FROM (SELECT b.item_id, b.id, b.booker_id, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date, b.id) AS rn " +
+            "FROM bookings b " +
+            "WHERE b.item_id IN (:itemIds) AND b.status = 'APPROVED' AND b.start_date > :now) t " +
+            "WHERE t.rn = 1", nativeQuery = true)
+    List<BookingSummary> findNextApprovedBookings(@Param("itemIds") Collection<Long> itemIds,
+                                                  @Param("now") LocalDateTime now);
+
+    // Ближайшие моменты, когда подтверждённое бронирование вещи начнётся или завершится
+    @Query("select b.item.id as itemId, " +
+            "min(case when b.startDate > :now then b.startDate end) as nextStart, " +
+            "min(b.endDate) as nextEnd " +
+            "from Booking b " +
+            "where b.item.id in :itemIds and b.status = ru.practicum.shareit.booking.enums.Status.APPROVED " +
+            "and b.endDate >= :now " +
+            "group by b.item.id")
+    List<BookingBoundaries> findApprovedBoundaries(@Param("itemIds") Collection<Long> itemIds,
+                                                   @Param("now") LocalDateTime now);
+
+    @Query("select b.id as id, b.item.id as itemId, b.startDate as startDate, b.endDate as endDate, b.status as status " +
+            "from Booking b " +
+            "where b.item.id = :itemId and b.status = ru.practicum.shareit.booking.enums.Status.APPROVED " +
+            "and b.startDate <= :to and b.endDate >= :from " +
+            "order by b.startDate")
+    List<BookingTimes> findApprovedOverlapping(@Param("itemId") long itemId,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+
+    // Подтверждённые бронирования, которые начинаются или завершаются в интервале (from, to]
+    @Query("select b.id as id, b.item.id as itemId, b.startDate as startDate, b.endDate as endDate, b.status as status " +
+            "from Booking b " +
+            "where b.status = ru.practicum.shareit.booking.enums.Status.APPROVED " +
+            "and ((b.startDate > :from and b.startDate <= :to) or (b.endDate > :from and b.endDate <= :to))")
+    List<BookingTimes> findApprovedChangingBetween(@Param("from") LocalDateTime from,
+                                                   @Param("to") LocalDateTime to);
+
+    @Query("select b.id as id, b.item.id as itemId, b.startDate as startDate, b.endDate as endDate, b.status as status " +
+            "from Booking b " +
+            "where b.status = ru.practicum.shareit.booking.enums.Status.WAITING " +
+            "and b.startDate > :from and b.startDate <= :to")
+    List<BookingTimes> findWaitingStartingBetween(@Param("from") LocalDateTime from,
+                                                  @Param("to") LocalDateTime to);
+
+    @Query("select b.id as id, b.item.id as itemId, b.startDate as startDate, b.endDate as endDate, b.status as status " +
+            "from Booking b " +
+            "where b.status = ru.practicum.shareit.booking.enums.Status.WAITING and b.startDate <= :cutoff " +
+            "order by b.startDate")
+    List<BookingTimes> findWaitingStartedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    // Отменяет только те бронирования, которые к моменту записи всё ещё ждут подтверждения
+    @Modifying
+    @Query("update Booking b set b.status = ru.practicum.shareit.booking.enums.Status.CANCELED " +
+            "where b.id in :bookingIds and b.status = ru.practicum.shareit.booking.enums.Status.WAITING " +
+            "and b.startDate <= :cutoff")
+    int cancelWaiting(@Param("bookingIds") Collection<Long> bookingIds, @Param("cutoff") LocalDateTime cutoff);
 
 }
\ No newline at end of file
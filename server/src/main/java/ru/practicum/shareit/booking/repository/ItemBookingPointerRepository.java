@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.model.ItemBookingPointer;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemBookingPointerRepository extends JpaRepository<ItemBookingPointer, Long> {
+
+    @Query("select p.itemId from ItemBookingPointer p where p.validUntil <= :now order by p.validUntil")
+    List<Long> findStaleItemIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Одним запросом на пачку вещей, без предварительного select, который сделал бы save для заданного id
+    @Modifying
+    @Query(value = "INSERT INTO item_booking_pointers (item_id) SELECT i.id FROM items i WHERE i.id IN (:itemIds)",
+            nativeQuery = true)
+    void insertEmpty(@Param("itemIds") Collection<Long> itemIds);
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.booking.page")
+public class BookingPageProperties {
+    // Верхняя граница размера страницы списков бронирований, какой бы size ни запросил клиент
+    private int maxSize = 100;
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingInDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
 
 import java.util.List;
 
@@ -11,10 +12,12 @@ public interface BookingService {
 
     BookingOutDto updateBookingStatus(Long bookingId, Long userId, Boolean approved);
 
+    List<BookingStatusResultDto> updateBookingStatuses(Long userId, List<Long> bookingIds, Boolean approved);
+
     BookingOutDto getBooking(Long userId, Long bookingId);
 
-    List<BookingOutDto> getBookings(Long userId, String state);
+    List<BookingOutDto> getBookings(Long userId, String state, int from, int size);
 
-    List<BookingOutDto> getOwnerBookings(Long bookerId, String state);
+    List<BookingOutDto> getOwnerBookings(Long bookerId, String state, int from, int size);
 
 }
\ No newline at end of file
@@ -3,31 +3,51 @@ package ru.practicum.shareit.booking.service.impl;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.AvailabilityCalendar;
+import ru.practicum.shareit.booking.availability.BookingAvailability;
+import ru.practicum.shareit.booking.availability.BookingIntervalSet;
+import ru.practicum.shareit.booking.availability.ItemBookingLocks;
 import ru.practicum.shareit.booking.dto.BookingInDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
 import ru.practicum.shareit.booking.dto.mapper.BookingMapper;
 import ru.practicum.shareit.booking.enums.State;
 import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.lifecycle.BookingLifecycleScheduler;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.model.LastBooking;
-import ru.practicum.shareit.booking.model.NextBooking;
+import ru.practicum.shareit.booking.model.BookingSummary;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.pointer.ItemBookingPointers;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingPageProperties;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.error.exception.NotFoundException;
 import ru.practicum.shareit.error.exception.UserNotOwnerException;
 import ru.practicum.shareit.error.exception.ValidationException;
-import ru.practicum.shareit.item.dto.mapper.ItemMapper;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
-import ru.practicum.shareit.user.dto.mapper.UserMapper;
+import ru.practicum.shareit.persistence.OffsetPageRequest;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.booking.enums.Status.*;
@@ -38,11 +58,22 @@ import static ru.practicum.shareit.booking.enums.Status.*;
 @AllArgsConstructor
 @Transactional
 public class BookingServiceImpl implements BookingService {
-    private static final Sort SORT = Sort.by(Sort.Direction.DESC, "startDate");
+    private static final Sort SORT = Sort.by(Sort.Direction.DESC, "startDate")
+            .and(Sort.by(Sort.Direction.DESC, "id"));
+    private static final Sort SORT_BY_ID = Sort.by(Sort.Direction.ASC, "id");
+    private static final int MAX_BULK_SIZE = 100;
 
     private final BookingRepository bookingRepository;
+    private final BookingAvailability bookingAvailability;
+    private final AvailabilityCalendar availabilityCalendar;
+    private final ItemBookingLocks itemBookingLocks;
+    private final ItemBookingPointers itemBookingPointers;
+    private final BookingLifecycleScheduler bookingLifecycleScheduler;
+    private final ItemDetailsCache itemDetailsCache;
+    private final UserCache userCache;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final BookingPageProperties bookingPageProperties;
 
     @Override
     public BookingOutDto addBooking(BookingInDto bookingRequestDto) {
@@ -58,15 +89,13 @@ public class BookingServiceImpl implements BookingService {
         assert booking != null;
         booking.setStatus(WAITING);
 
-        LocalDateTime start = booking.getStartDate();
-        LocalDateTime end = booking.getEndDate();
-        List<Booking> bookingsAtSameTime = bookingRepository.findBookingsAtSameTime(itemId, Status.APPROVED, start, end);
-        if (!bookingsAtSameTime.isEmpty()) {
-            log.warn("Время для аренды недоступно");
-            throw new ValidationException("Время для аренды недоступно");
-        }
+        // Проверка пересечений и запись выполняются под блокировкой вещи до конца транзакции
+        itemBookingLocks.lockUntilCompletion(itemId);
+        validateTimeIsFree(itemId, booking.getStartDate(), booking.getEndDate());
 
         booking = bookingRepository.save(booking);
+        itemDetailsCache.evictBookings(itemId);
+        bookingLifecycleScheduler.scheduled(booking);
         log.info("Booking created successfully with id: {}", booking.getId());
 
         return toBookingResponseDto(booking);
@@ -76,30 +105,124 @@ public class BookingServiceImpl implements BookingService {
     public BookingOutDto updateBookingStatus(Long bookingId, Long userId, Boolean approved) {
         log.info("Attempting to update status for booking id: {} by user id: {} with approval: {}", bookingId, userId, approved);
 
+        Long itemId = bookingRepository.findItemIdById(bookingId)
+                .orElseThrow(() -> {
+                    log.error("Booking not found with id: {}", bookingId);
+                    return new NotFoundException("Booking not found");
+                });
+        // Бронирование читается уже под блокировкой вещи, чтобы статус и пересечения не изменились до фиксации
+        itemBookingLocks.lockUntilCompletion(itemId);
+
         Booking booking = findBookingById(bookingId);
         log.debug("Booking found: {}", booking);
 
-        // Проверяем, является ли текущий пользователь владельцем предмета
-        validateUserOwnership(booking, userId);
+        validateStatusChange(booking, userId, approved);
 
-        // Проверить, не одобрено ли бронирование уже
-        if (booking.getStatus() == APPROVED && approved) {
-            log.error("Cannot approve booking id {} again as it is already approved", bookingId);
-            throw new ValidationException(String.format("Бронирование с id %d уже подтверждено", bookingId));
-        } else {
-            if (booking.getStatus().equals(Status.REJECTED)) {
-                log.warn("Бронирование с id {} уже отклонено", bookingId);
-                throw new ValidationException(String.format("Бронирование с id %d уже отклонено", bookingId));
-            }
+        if (approved) {
+            validateTimeIsFree(itemId, booking.getStartDate(), booking.getEndDate());
         }
 
+        Status previousStatus = booking.getStatus();
         booking.setStatus(approved ? APPROVED : REJECTED);
         booking = bookingRepository.save(booking);
+        if (approvedSetChanged(booking, previousStatus)) {
+            itemBookingPointers.refresh(itemId);
+        }
+        itemDetailsCache.evictBookings(itemId);
 
         log.info("Booking status updated successfully to: {}", booking.getStatus());
         return toBookingResponseDto(booking);
     }
 
+    @Override
+    public List<BookingStatusResultDto> updateBookingStatuses(Long userId, List<Long> bookingIds, Boolean approved) {
+        log.info("Attempting to update status for {} bookings by user id: {} with approval: {}",
+                bookingIds == null ? 0 : bookingIds.size(), userId, approved);
+        if (bookingIds == null || bookingIds.isEmpty() || bookingIds.size() > MAX_BULK_SIZE
+                || bookingIds.stream().anyMatch(Objects::isNull)) {
+            log.error("Invalid bulk booking ids: {}", bookingIds);
+            throw new ValidationException(String.format(
+                    "Список должен содержать от 1 до %d id бронирований", MAX_BULK_SIZE));
+        }
+        List<Long> ids = bookingIds.stream().distinct().toList();
+
+        Map<Long, Long> itemIdByBookingId = bookingRepository.findSummariesByIds(ids).stream()
+                .collect(Collectors.toMap(BookingSummary::getId, BookingSummary::getItemId));
+        // Все вещи пакета блокируются сразу и в одном порядке, чтобы пакеты не ждали друг друга по кругу
+        itemBookingLocks.lockAllUntilCompletion(new HashSet<>(itemIdByBookingId.values()));
+        Map<Long, Booking> bookings = bookingRepository.findWithItemAndBookerByIdIn(itemIdByBookingId.keySet()).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        Map<Long, BookingStatusResultDto> results = new HashMap<>();
+        Map<Long, List<Booking>> candidatesByItemId = new LinkedHashMap<>();
+        for (Long id : ids) {
+            Booking booking = bookings.get(id);
+            try {
+                if (booking == null) {
+                    throw new NotFoundException("Booking not found");
+                }
+                validateStatusChange(booking, userId, approved);
+                candidatesByItemId.computeIfAbsent(booking.getItem().getId(), key -> new ArrayList<>()).add(booking);
+            } catch (NotFoundException e) {
+                results.put(id, failure(id, HttpStatus.NOT_FOUND, e));
+            } catch (UserNotOwnerException e) {
+                results.put(id, failure(id, HttpStatus.FORBIDDEN, e));
+            } catch (ValidationException e) {
+                results.put(id, failure(id, HttpStatus.BAD_REQUEST, e));
+            }
+        }
+
+        // Подтверждаемые бронирования проверяются по вещам: с уже подтверждёнными и с принятыми ранее в этом пакете
+        List<Booking> changed = new ArrayList<>();
+        for (Map.Entry<Long, List<Booking>> entry : candidatesByItemId.entrySet()) {
+            long itemId = entry.getKey();
+            BookingIntervalSet accepted = new BookingIntervalSet();
+            for (Booking booking : entry.getValue()) {
+                if (approved && (accepted.overlaps(booking.getStartDate(), booking.getEndDate())
+                        || bookingAvailability.hasApprovedOverlap(itemId, booking.getStartDate(), booking.getEndDate()))) {
+                    log.warn("Время для аренды недоступно для бронирования id: {}", booking.getId());
+                    results.put(booking.getId(), failure(booking.getId(), HttpStatus.BAD_REQUEST,
+                            new ValidationException("Время для аренды недоступно")));
+                    continue;
+                }
+                if (approved) {
+                    accepted.add(booking.getId(), booking.getStartDate(), booking.getEndDate());
+                }
+                changed.add(booking);
+            }
+        }
+
+        Map<Long, Status> previousStatuses = new HashMap<>();
+        for (Booking booking : changed) {
+            previousStatuses.put(booking.getId(), booking.getStatus());
+            booking.setStatus(approved ? APPROVED : REJECTED);
+        }
+        // Изменения уходят одним пакетом UPDATE при сбросе (hibernate.jdbc.batch_size)
+        bookingRepository.saveAllAndFlush(changed);
+
+        Set<Long> refreshedItemIds = new HashSet<>();
+        for (Booking booking : changed) {
+            if (approvedSetChanged(booking, previousStatuses.get(booking.getId()))) {
+                refreshedItemIds.add(booking.getItem().getId());
+            }
+            itemDetailsCache.evictBookings(booking.getItem().getId());
+        }
+        if (!refreshedItemIds.isEmpty()) {
+            itemBookingPointers.refresh(refreshedItemIds);
+        }
+
+        List<BookingOutDto> dtos = new BookingMapper(itemBookingPointers).toResponseDtos(changed);
+        for (BookingOutDto dto : dtos) {
+            results.put(dto.getId(), BookingStatusResultDto.builder()
+                    .bookingId(dto.getId())
+                    .code(HttpStatus.OK.value())
+                    .booking(dto)
+                    .build());
+        }
+        log.info("Updated status of {} of {} bookings", changed.size(), ids.size());
+        return ids.stream().map(results::get).toList();
+    }
+
     @Override
     public BookingOutDto getBooking(Long userId, Long bookingId) {
         log.info("Attempting to retrieve booking with id: {} for user id: {}", bookingId, userId);
@@ -116,8 +239,8 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingOutDto> getBookings(Long userId, String state) {
-        log.info("Retrieving bookings for user id: {} with state: {}", userId, state);
+    public List<BookingOutDto> getBookings(Long userId, String state, int from, int size) {
+        log.info("Retrieving bookings for user id: {} with state: {}, from: {}, size: {}", userId, state, from, size);
 
         State bookingState = State.from(state);
         Status bookingStatus = convertStateToStatus(bookingState);
@@ -127,91 +250,107 @@ public class BookingServiceImpl implements BookingService {
 
         LocalDateTime now = LocalDateTime.now();
 
-        Sort sortById = Sort.by(Sort.Order.asc("id"));  // Сортировка по возрастанию id
-
-        List<Booking> bookings = switch (bookingState) {
-            case CURRENT -> bookingRepository.findByBooker_IdAndStartDateBeforeAndEndDateAfter(
-                    userId, now, now, sortById);
-            case PAST -> bookingRepository.findByBooker_IdAndEndDateBefore(
-                    userId, now, SORT);
-            case FUTURE -> bookingRepository.findByBooker_IdAndStartDateAfter(
-                    userId, now, SORT);
-            case WAITING, REJECTED -> bookingRepository.findByStatusAndBooker_Id(
-                    bookingStatus, userId, SORT);
-            default -> bookingRepository.findByBooker_Id(userId, SORT);
+        int pageSize = limitPageSize(from, size);
+        Pageable page = OffsetPageRequest.of(from, pageSize, SORT);
+
+        Slice<BookingView> bookings = switch (bookingState) {
+            case CURRENT -> bookingRepository.findBookerCurrent(
+                    userId, now, OffsetPageRequest.of(from, pageSize, SORT_BY_ID));
+            case PAST -> bookingRepository.findBookerPast(userId, now, page);
+            case FUTURE -> bookingRepository.findBookerFuture(userId, now, page);
+            case WAITING, REJECTED -> bookingRepository.findBookerByStatus(userId, bookingStatus, page);
+            default -> bookingRepository.findBookerAll(userId, page);
         };
 
-        log.debug("Found {} bookings for user id: {} with state: {}", bookings.size(), userId, bookingState);
-        BookingMapper bookingMapper = new BookingMapper(bookingRepository);
+        log.debug("Found {} bookings for user id: {} with state: {}", bookings.getNumberOfElements(), userId, bookingState);
+        BookingMapper bookingMapper = new BookingMapper(itemBookingPointers);
 
-        return bookings.stream()
-                .map(bookingMapper::toResponseDto)
-                .collect(Collectors.toList());
+        return bookingMapper.toViewDtos(bookings.getContent());
     }
 
     @Override
-    public List<BookingOutDto> getOwnerBookings(Long ownerId, String state) {
-        log.info("Retrieving bookings for owner id: {} with state: {}", ownerId, state);
+    public List<BookingOutDto> getOwnerBookings(Long ownerId, String state, int from, int size) {
+        log.info("Retrieving bookings for owner id: {} with state: {}, from: {}, size: {}", ownerId, state, from, size);
         State bookingState = State.from(state);
 
         log.debug("Booking state: {}", bookingState);
 
-        User owner = findUserById(ownerId);
-        log.debug("Owner found: {}", owner);
+        if (!userCache.exists(ownerId)) {
+            log.error("User not found with id: {}", ownerId);
+            throw new NotFoundException("User not found");
+        }
 
         LocalDateTime now = LocalDateTime.now();
 
+        Pageable page = OffsetPageRequest.of(from, limitPageSize(from, size), SORT);
 
-        // Получение списка вещей, принадлежащих владельцу
-        List<Item> itemsOwnedByOwner = itemRepository.findByOwnerId(ownerId);
-        List<Long> ownedItemIds = itemsOwnedByOwner.stream()
-                .map(Item::getId)
-                .collect(Collectors.toList());
-
-        // Получение бронирований для вещей, принадлежащих владельцу
-        List<Booking> bookings = switch (bookingState) {
-            case CURRENT -> bookingRepository.findByItem_IdInAndStartDateIsBeforeAndEndDateIsAfter(
-                    ownedItemIds, now, now, SORT);
-            case PAST -> bookingRepository.findByItem_IdInAndEndDateIsBefore(
-                    ownedItemIds, now, SORT);
-            case FUTURE -> bookingRepository.findByItem_IdInAndStartDateIsAfter(
-                    ownedItemIds, now, SORT);
-            case WAITING -> bookingRepository.findByStatusAndItem_IdIn(
-                    WAITING, ownedItemIds, SORT);
-            case REJECTED -> bookingRepository.findByStatusAndItem_IdIn(
-                    REJECTED, ownedItemIds, SORT);
-            default -> bookingRepository.findByItem_IdIn(ownedItemIds, SORT);
+        // Бронирования вещей владельца выбираются соединением с items по owner_id, без списка id вещей
+        Slice<BookingView> bookings = switch (bookingState) {
+            case CURRENT -> bookingRepository.findOwnerCurrent(ownerId, now, page);
+            case PAST -> bookingRepository.findOwnerPast(ownerId, now, page);
+            case FUTURE -> bookingRepository.findOwnerFuture(ownerId, now, page);
+            case WAITING -> bookingRepository.findOwnerByStatus(ownerId, WAITING, page);
+            case REJECTED -> bookingRepository.findOwnerByStatus(ownerId, REJECTED, page);
+            default -> bookingRepository.findOwnerAll(ownerId, page);
         };
 
-        log.debug("Found {} bookings for owner id: {} with state: {}", bookings.size(), ownerId, bookingState);
+        log.debug("Found {} bookings for owner id: {} with state: {}", bookings.getNumberOfElements(), ownerId, bookingState);
 
-        BookingMapper bookingMapper = new BookingMapper(bookingRepository);
+        BookingMapper bookingMapper = new BookingMapper(itemBookingPointers);
 
-        return bookings.stream()
-                .map(bookingMapper::toResponseDto)
-                .collect(Collectors.toList());
+        return bookingMapper.toViewDtos(bookings.getContent());
     }
 
     private BookingOutDto toBookingResponseDto(Booking booking) {
-        Item item = booking.getItem();
-        LocalDateTime now = LocalDateTime.now();
+        return new BookingMapper(itemBookingPointers).toResponseDto(booking);
+    }
 
-        Booking nextBookingEntity = getNextBooking(item.getId(), now);
-        Booking lastBookingEntity = getLastBooking(item.getId(), now);
 
-        NextBooking nextBooking = nextBookingEntity != null ? new NextBooking(nextBookingEntity.getId(), nextBookingEntity.getBooker().getId()) : null;
-        LastBooking lastBooking = lastBookingEntity != null ? new LastBooking(lastBookingEntity.getId(), lastBookingEntity.getBooker().getId()) : null;
+    private void validateStatusChange(Booking booking, Long userId, boolean approved) {
+        // Проверяем, является ли текущий пользователь владельцем предмета
+        validateUserOwnership(booking, userId);
 
-        return BookingOutDto.builder()
-                .id(booking.getId())
-                .start(booking.getStartDate())
-                .end(booking.getEndDate())
-                .item(ItemMapper.toDto(item, nextBooking, lastBooking))
-                .booker(UserMapper.toDto(booking.getBooker()))
-                .status(booking.getStatus())
-                .build();
+        // Проверить, не одобрено ли бронирование уже
+        if (booking.getStatus() == APPROVED && approved) {
+            log.error("Cannot approve booking id {} again as it is already approved", booking.getId());
+            throw new ValidationException(String.format("Бронирование с id %d уже подтверждено", booking.getId()));
+        } else {
+            if (booking.getStatus().equals(Status.REJECTED)) {
+                log.warn("Бронирование с id {} уже отклонено", booking.getId());
+                throw new ValidationException(String.format("Бронирование с id %d уже отклонено", booking.getId()));
+            }
+            if (booking.getStatus() == CANCELED) {
+                log.warn("Бронирование с id {} отменено по истечении срока подтверждения", booking.getId());
+                throw new ValidationException(String.format("Бронирование с id %d отменено", booking.getId()));
+            }
+        }
+    }
+
+    /**
+     * Обновляет производные от подтверждённых бронирований структуры, кроме указателей вещи,
+     * которые вызывающий пересчитывает сам. Возвращает, изменился ли набор подтверждённых бронирований.
+     */
+    private boolean approvedSetChanged(Booking booking, Status previousStatus) {
+        if (booking.getStatus() == APPROVED) {
+            bookingAvailability.approved(booking);
+            availabilityCalendar.evict(booking);
+            bookingLifecycleScheduler.scheduled(booking);
+            return true;
+        } else if (previousStatus == APPROVED) {
+            bookingAvailability.released(booking);
+            availabilityCalendar.evict(booking);
+            return true;
+        }
+        return false;
     }
 
+    private static BookingStatusResultDto failure(Long bookingId, HttpStatus status, RuntimeException e) {
+        return BookingStatusResultDto.builder()
+                .bookingId(bookingId)
+                .code(status.value())
+                .error(e.getMessage())
+                .build();
+    }
 
     private void validateItemAndBooker(Item item, User booker) {
         if (!item.getIsAvailable()) {
@@ -226,18 +365,20 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
-    private Booking getLastBooking(Long itemId, LocalDateTime now) {
-        return bookingRepository.findByItem_IdAndEndDateBeforeOrderByEndDateDesc(itemId, now)
-                .stream()
-                .findFirst()
-                .orElse(null);
+    private void validateTimeIsFree(long itemId, LocalDateTime start, LocalDateTime end) {
+        if (bookingAvailability.hasApprovedOverlap(itemId, start, end)) {
+            log.warn("Время для аренды недоступно");
+            throw new ValidationException("Время для аренды недоступно");
+        }
     }
 
-    private Booking getNextBooking(Long itemId, LocalDateTime now) {
-        return bookingRepository.findByItem_IdAndStartDateAfterOrderByStartDateAsc(itemId, now)
-                .stream()
-                .findFirst()
-                .orElse(null);
+    private int limitPageSize(int from, int size) {
+        if (from < 0 || size <= 0) {
+            log.error("Invalid booking page parameters: from={}, size={}", from, size);
+            throw new ValidationException(String.format(
+                    "Некорректные параметры страницы: from=%d, size=%d", from, size));
+        }
+        return Math.min(size, bookingPageProperties.getMaxSize());
     }
 
     private void validateUserOwnership(Booking booking, Long userId) {
@@ -249,11 +390,11 @@ public class BookingServiceImpl implements BookingService {
     }
 
     private User findUserById(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    log.error("User not found with id: {}", userId);
-                    return new NotFoundException("User not found");
-                });
+        if (!userCache.exists(userId)) {
+            log.error("User not found with id: {}", userId);
+            throw new NotFoundException("User not found");
+        }
+        return userRepository.getReferenceById(userId);
     }
 
     private Item findItemById(Long itemId) {
@@ -265,7 +406,7 @@ public class BookingServiceImpl implements BookingService {
     }
 
     private Booking findBookingById(Long bookingId) {
-        return bookingRepository.findById(bookingId)
+        return bookingRepository.findWithItemAndBookerById(bookingId)
                 .orElseThrow(() -> {
                     log.error("Booking not found with id: {}", bookingId);
                     return new NotFoundException("Booking not found");
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.cache.items")
+public class ItemCacheProperties {
+    private long maximumSize = 10_000;
+
+    private Duration viewTtl = Duration.ofMinutes(10);
+
+    // Последнее и следующее бронирования сдвигаются со временем и без записей, поэтому живут недолго
+    private Duration bookingsTtl = Duration.ofSeconds(30);
+}
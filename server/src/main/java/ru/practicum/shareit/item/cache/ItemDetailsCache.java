@@ -0,0 +1,76 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.BookingDetails;
+
+import java.util.function.Function;
+
+/**
+ * Кэш карточек вещей: общая часть с комментариями и, отдельно, последнее и следующее бронирования для владельца.
+ * Записи удаляются после фиксации изменившей их транзакции.
+ */
+@Slf4j
+@Component
+public class ItemDetailsCache {
+    private final Cache<Long, ItemView> views;
+    private final Cache<Long, BookingDetails> bookings;
+
+    public ItemDetailsCache(ItemCacheProperties properties, MeterRegistry meterRegistry) {
+        views = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getViewTtl())
+                .recordStats()
+                .build();
+        bookings = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getBookingsTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, views, "itemViews");
+        CaffeineCacheMetrics.monitor(meterRegistry, bookings, "itemBookings");
+    }
+
+    public ItemView getView(Long itemId, Function<Long, ItemView> loader) {
+        return views.get(itemId, loader);
+    }
+
+    public BookingDetails getBookings(Long itemId, Function<Long, BookingDetails> loader) {
+        return bookings.get(itemId, loader);
+    }
+
+    public void evictView(Long itemId) {
+        afterCommit(() -> views.invalidate(itemId));
+    }
+
+    public void evictBookings(Long itemId) {
+        afterCommit(() -> bookings.invalidate(itemId));
+    }
+
+    public void evictAll(Long itemId) {
+        afterCommit(() -> {
+            views.invalidate(itemId);
+            bookings.invalidate(itemId);
+        });
+    }
+
+    private void afterCommit(Runnable eviction) {
+        // Чтение до фиксации могло снова положить в кэш старое состояние, поэтому удаляем после неё
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.cache;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Неизменяемая часть карточки вещи, одинаковая для всех пользователей.
+ * Имена авторов комментариев берутся при ответе из кэша пользователей, одним запросом на всех отсутствующих там
+ * авторов, поэтому смена имени видна сразу, без сброса карточек всех прокомментированных вещей. Имя, прочитанное
+ * вместе с комментарием, остаётся на случай, если автора уже нет.
+ */
+public record ItemView(Long id, String name, String description, Boolean available, Long ownerId,
+                       List<Comment> comments) {
+
+    public record Comment(Long id, String text, Long authorId, String authorName, LocalDateTime created) {
+    }
+}
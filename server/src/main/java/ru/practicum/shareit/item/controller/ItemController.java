@@ -1,19 +1,29 @@
 package ru.practicum.shareit.item.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.error.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDetailsWithBookingDatesDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchPageDto;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -22,8 +32,10 @@ import java.util.List;
 @RequestMapping("/items")
 public class ItemController {
     private final ItemService itemService;
+    private final ItemImportService itemImportService;
     private static final String USER_HEADER = "X-Sharer-User-Id";
     private static final String ITEM_ID_PATH = "/{item-id}";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -33,6 +45,13 @@ public class ItemController {
         return itemService.addItem(userId, itemDto);
     }
 
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ItemImportResultDto importItems(@RequestHeader(USER_HEADER) Long userId,
+                                           HttpServletRequest request) throws IOException {
+        log.info("Received request to import items for user id: {}", userId);
+        return itemImportService.importItems(userId, request.getInputStream());
+    }
+
     @PatchMapping(ITEM_ID_PATH)
     public ItemDto updateItem(@RequestHeader(USER_HEADER) Long userId,
                               @PathVariable("item-id") Long itemId,
@@ -61,10 +80,38 @@ public class ItemController {
         return itemService.getItemDetailsWithBookings(itemId);
     }
 
+    @GetMapping(ITEM_ID_PATH + "/availability")
+    public List<FreeIntervalDto> getAvailability(
+            @PathVariable("item-id") Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Received request to get free intervals of item id: {} from: {} to: {}", itemId, from, to);
+        return itemService.getAvailability(itemId, from, to);
+    }
+
     @GetMapping("/search")
-    public List<ItemDto> searchItems(@RequestParam String text) {
-        log.info("Received request to search items with text: {}", text);
-        return itemService.searchItems(text);
+    public ResponseEntity<List<ItemDto>> searchItems(@RequestParam String text,
+                                                     @RequestParam(defaultValue = "false") boolean ranked,
+                                                     @RequestParam(defaultValue = "0") int from,
+                                                     @RequestParam(defaultValue = "10") int size,
+                                                     @RequestParam(required = false) String cursor) {
+        log.info("Received request to search items with text: {}, ranked: {}, from: {}, size: {}, cursor: {}",
+                text, ranked, from, size, cursor);
+        if (cursor != null) {
+            if (ranked) {
+                throw new ValidationException("Курсор не поддерживается для ранжированного поиска");
+            }
+            ItemSearchPageDto page = itemService.searchItemsAfter(text, cursor, size);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        }
+        if (ranked) {
+            return ResponseEntity.ok(itemService.searchItemsRanked(text, from, size));
+        }
+        return ResponseEntity.ok(itemService.searchItems(text, from, size));
     }
 
     @PostMapping(ITEM_ID_PATH + "/comment")
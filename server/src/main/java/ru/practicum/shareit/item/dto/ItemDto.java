@@ -2,12 +2,16 @@ package ru.practicum.shareit.item.dto;
 
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.model.LastBooking;
 import ru.practicum.shareit.booking.model.NextBooking;
+import ru.practicum.shareit.validation.ValidationGroups;
 
 import java.util.List;
 
@@ -18,9 +22,18 @@ import java.util.List;
 @JsonInclude(JsonInclude.Include.ALWAYS)
 public class ItemDto {
     Long id;
+
+    // Ограничения совпадают с ItemDto шлюза
+    @NotBlank(groups = ValidationGroups.Create.class, message = "Название не может быть пустым")
     String name;
+
+    @NotBlank(groups = ValidationGroups.Create.class, message = "Описание не может быть пустым")
+    @Size(max = 200, message = "Длина описания должна до 200 символов")
     String description;
+
+    @NotNull(groups = ValidationGroups.Create.class, message = "Поле доступности вещи не может быть пустым")
     Boolean available;
+
     Long ownerId;
     Long requestId;
     NextBooking nextBooking;
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemImportErrorDto {
+    // Номер строки NDJSON или элемента массива, начиная с 1
+    long row;
+    String message;
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.model;
+
+import java.time.LocalDateTime;
+
+public interface CommentWithAuthor {
+    Long getItemId();
+
+    Long getId();
+
+    String getText();
+
+    Long getAuthorId();
+
+    String getAuthorName();
+
+    LocalDateTime getCreated();
+}
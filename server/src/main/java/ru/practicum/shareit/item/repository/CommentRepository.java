@@ -1,10 +1,21 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentWithAuthor;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByItem_Id(Long itemId);
-}
\ No newline at end of file
+
+    @Query("select c.item.id as itemId, c.id as id, c.text as text, u.id as authorId, u.name as authorName, " +
+            "c.created as created " +
+            "from Comment c join c.user u " +
+            "where c.item.id in :itemIds " +
+            "order by c.id")
+    List<CommentWithAuthor> findWithAuthorByItemIds(@Param("itemIds") Collection<Long> itemIds);
+}
@@ -1,29 +1,49 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemText;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findByOwnerId(Long ownerId);
 
-    @Query("SELECT i FROM Item i WHERE LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) " +
-            "OR LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%')) " +
-            "AND i.isAvailable = true")
-    List<Item> search(@Param("text") String text);
+    @Query("select i.id as id, i.name as name, i.description as description from Item i " +
+            "where (lower(i.name) like concat('%', :text, '%') " +
+            " or lower(i.description) like concat('%', :text, '%')) " +
+            " and i.isAvailable = true " +
+            "order by i.id")
+    List<ItemText> searchTexts(@Param("text") String text, Pageable page);
 
     @Query(" select i from Item i " +
             "where (lower(i.name) like concat('%', :text, '%') " +
             " or lower(i.description) like concat('%', :text, '%')) " +
             " and i.isAvailable = true")
-    Page<Item> searchWithPaging(@Param("text") String text, Pageable page);
+    Slice<Item> searchWithPaging(@Param("text") String text, Pageable page);
+
+    @Query(" select i from Item i " +
+            "where (lower(i.name) like concat('%', :text, '%') " +
+            " or lower(i.description) like concat('%', :text, '%')) " +
+            " and i.isAvailable = true and i.id > :afterId " +
+            "order by i.id")
+    List<Item> searchAfter(@Param("text") String text, @Param("afterId") long afterId, Pageable page);
+
+    // Блокировка строк вещей до конца транзакции, по возрастанию id, чтобы транзакции не ждали друг друга по кругу
+    @Query(value = "select id from items where id in (:ids) order by id for update", nativeQuery = true)
+    List<Long> lockAllById(@Param("ids") Collection<Long> ids);
 
     List<Item> findByRequestId(long requestId);
 
     List<Item> findByRequestIdIn(List<Long> requestIds);
+
+    @Query("select i.id as id, i.name as name, i.description as description from Item i " +
+            "where i.isAvailable = true and i.id > :afterId " +
+            "order by i.id")
+    List<ItemText> findAvailableTextsAfter(@Param("afterId") long afterId, Pageable page);
 }
\ No newline at end of file
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * BM25F-оценка релевантности вещи: совпадения в названии весят больше, чем в описании.
+ * Слово запроса засчитывается в каждом слове поля, которое его содержит, чтобы ранжирование
+ * согласовывалось с поиском по подстроке.
+ */
+public class Bm25Scorer {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+    private static final Comparator<ScoredItem> WORST_FIRST = Comparator.comparingDouble(ScoredItem::score)
+            .thenComparing(ScoredItem::itemId, Comparator.reverseOrder());
+
+    private final List<String> queryTerms;
+    private final Map<String, Double> idf = new HashMap<>();
+    private final double averageNameLength;
+    private final double averageDescriptionLength;
+
+    public Bm25Scorer(Collection<String> queryTerms, long documentCount, Map<String, Long> documentFrequencies,
+                      double averageNameLength, double averageDescriptionLength) {
+        this.queryTerms = new ArrayList<>(new LinkedHashSet<>(queryTerms));
+        this.averageNameLength = Math.max(averageNameLength, 1.0);
+        this.averageDescriptionLength = Math.max(averageDescriptionLength, 1.0);
+        for (String term : this.queryTerms) {
+            long documentFrequency = documentFrequencies.getOrDefault(term, 0L);
+            idf.put(term, Math.log(1.0 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5)));
+        }
+    }
+
+    /**
+     * Статистика корпуса считается по самим кандидатам, когда полной статистики по вещам нет.
+     */
+    public static Bm25Scorer forCandidates(Collection<String> queryTerms, Collection<RankedDocument> candidates) {
+        Map<String, Long> documentFrequencies = new HashMap<>();
+        long nameLength = 0;
+        long descriptionLength = 0;
+        for (RankedDocument candidate : candidates) {
+            nameLength += candidate.nameTokens().size();
+            descriptionLength += candidate.descriptionTokens().size();
+            for (String term : new LinkedHashSet<>(queryTerms)) {
+                if (candidate.contains(term)) {
+                    documentFrequencies.merge(term, 1L, Long::sum);
+                }
+            }
+        }
+        int count = Math.max(candidates.size(), 1);
+        return new Bm25Scorer(queryTerms, candidates.size(), documentFrequencies,
+                (double) nameLength / count, (double) descriptionLength / count);
+    }
+
+    public double score(RankedDocument document) {
+        double score = 0.0;
+        for (String term : queryTerms) {
+            double nameFrequency = termFrequency(term, document.nameTokens()) /
+                    (1 - B + B * document.nameTokens().size() / averageNameLength);
+            double descriptionFrequency = termFrequency(term, document.descriptionTokens()) /
+                    (1 - B + B * document.descriptionTokens().size() / averageDescriptionLength);
+            double frequency = NAME_WEIGHT * nameFrequency + DESCRIPTION_WEIGHT * descriptionFrequency;
+            score += idf.get(term) * frequency / (K1 + frequency);
+        }
+        return score;
+    }
+
+    /**
+     * Отбирает limit лучших документов кучей ограниченного размера, не сортируя всё множество совпадений.
+     * Куча не бывает больше числа документов, как бы велик ни был limit.
+     */
+    public List<Long> topK(Collection<RankedDocument> documents, int limit) {
+        if (limit <= 0 || documents.isEmpty()) {
+            return List.of();
+        }
+        PriorityQueue<ScoredItem> heap = new PriorityQueue<>(Math.min(limit, documents.size()) + 1, WORST_FIRST);
+        for (RankedDocument document : documents) {
+            ScoredItem scored = new ScoredItem(document.itemId(), score(document));
+            if (heap.size() < limit) {
+                heap.add(scored);
+            } else if (WORST_FIRST.compare(scored, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(scored);
+            }
+        }
+
+        List<ScoredItem> best = new ArrayList<>(heap);
+        best.sort(WORST_FIRST.reversed());
+        return best.stream().map(ScoredItem::itemId).toList();
+    }
+
+    private static int termFrequency(String term, List<String> tokens) {
+        int frequency = 0;
+        for (String token : tokens) {
+            if (token.contains(term)) {
+                frequency++;
+            }
+        }
+        return frequency;
+    }
+
+    public record RankedDocument(long itemId, List<String> nameTokens, List<String> descriptionTokens) {
+        public static RankedDocument of(long itemId, String name, String description) {
+            return new RankedDocument(itemId,
+                    ItemTextIndex.tokenize(ItemTextIndex.normalize(name)),
+                    ItemTextIndex.tokenize(ItemTextIndex.normalize(description)));
+        }
+
+        boolean contains(String term) {
+            return nameTokens.stream().anyMatch(token -> token.contains(term)) ||
+                    descriptionTokens.stream().anyMatch(token -> token.contains(term));
+        }
+    }
+
+    private record ScoredItem(long itemId, double score) {
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+public interface ItemSearchEngine {
+    List<Item> search(String text, int from, int size);
+
+    List<Item> searchAfter(String text, long afterId, int size);
+
+    List<Item> searchRanked(String text, int limit);
+
+    void index(Item item);
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.search")
+public class ItemSearchProperties {
+    private String engine = "database";
+
+    // Верхняя граница размера страницы, какой бы size ни запросил клиент
+    private int maxPageSize = 100;
+
+    // Ранжированный поиск отдаёт только первые maxRankedResults результатов: from + size не выходит за это окно
+    private int maxRankedResults = 1000;
+
+    // Сколько совпадений LIKE-запроса ранжирует движок database; остальные в оценку не попадают
+    private int maxRankedCandidates = 10_000;
+}
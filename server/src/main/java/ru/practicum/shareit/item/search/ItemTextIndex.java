@@ -0,0 +1,233 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Инвертированный индекс по названию и описанию доступных вещей.
+ * Запросы от трёх символов отбираются пересечением триграмм, более короткие - по списку вещей,
+ * содержащих ровно эту одно- или двухсимвольную подстроку, после чего кандидаты проверяются
+ * на вхождение подстроки, как в LIKE '%text%'.
+ */
+public class ItemTextIndex {
+    private static final int GRAM_SIZE = 3;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Set<Long>> gramPostings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long nameTokenCount;
+    private long descriptionTokenCount;
+
+    public void put(long itemId, String name, String description, boolean available) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(itemId);
+            if (available) {
+                addDocument(new Document(itemId, normalize(name), normalize(description),
+                        Bm25Scorer.RankedDocument.of(itemId, name, description)));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            gramPostings.clear();
+            nameTokenCount = 0;
+            descriptionTokenCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает id доступных вещей, в названии или описании которых встречается текст, по возрастанию id.
+     */
+    public List<Long> search(String text) {
+        String query = normalize(text);
+        if (query.isBlank()) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Long> result = new ArrayList<>();
+            for (Document document : matches(query)) {
+                result.add(document.itemId());
+            }
+            Collections.sort(result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает не более limit совпадений, упорядоченных по убыванию BM25-релевантности.
+     */
+    public List<Long> searchRanked(String text, int limit) {
+        String query = normalize(text);
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            List<Long> result = search(text);
+            return result.subList(0, Math.min(limit, result.size()));
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<String, Long> documentFrequencies = new HashMap<>();
+            for (String term : terms) {
+                documentFrequencies.computeIfAbsent(term, key -> candidates(key).stream()
+                        .filter(itemId -> documents.get(itemId).ranked().contains(key))
+                        .count());
+            }
+            int count = Math.max(documents.size(), 1);
+            Bm25Scorer scorer = new Bm25Scorer(terms, documents.size(), documentFrequencies,
+                    (double) nameTokenCount / count, (double) descriptionTokenCount / count);
+            return scorer.topK(matches(query).stream().map(Document::ranked).toList(), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    public static List<String> tokenize(String text) {
+        return Arrays.stream(TOKEN_SEPARATOR.split(text))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    private List<Document> matches(String query) {
+        List<Document> result = new ArrayList<>();
+        for (Long itemId : candidates(query)) {
+            Document document = documents.get(itemId);
+            if (document.contains(query)) {
+                result.add(document);
+            }
+        }
+        return result;
+    }
+
+    private Collection<Long> candidates(String query) {
+        if (query.length() >= GRAM_SIZE) {
+            return intersect(gramsOf(query));
+        }
+        // Короткие подстроки проиндексированы целиком, поэтому список кандидатов уже точный
+        return gramPostings.getOrDefault(query, Collections.emptySet());
+    }
+
+    private Collection<Long> intersect(Set<String> grams) {
+        List<Set<Long>> postings = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            Set<Long> itemIds = gramPostings.get(gram);
+            if (itemIds == null) {
+                return Collections.emptyList();
+            }
+            postings.add(itemIds);
+        }
+        postings.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+        Set<Long> result = new HashSet<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !result.isEmpty(); i++) {
+            result.retainAll(postings.get(i));
+        }
+        return result;
+    }
+
+    private void addDocument(Document document) {
+        documents.put(document.itemId(), document);
+        nameTokenCount += document.ranked().nameTokens().size();
+        descriptionTokenCount += document.ranked().descriptionTokens().size();
+        document.grams().forEach(gram ->
+                gramPostings.computeIfAbsent(gram, key -> new HashSet<>()).add(document.itemId()));
+    }
+
+    private void removeDocument(long itemId) {
+        Document document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+        nameTokenCount -= document.ranked().nameTokens().size();
+        descriptionTokenCount -= document.ranked().descriptionTokens().size();
+        document.grams().forEach(gram -> removePosting(gramPostings, gram, itemId));
+    }
+
+    private static void removePosting(Map<String, Set<Long>> postings, String key, long itemId) {
+        Set<Long> itemIds = postings.get(key);
+        if (itemIds != null) {
+            itemIds.remove(itemId);
+            if (itemIds.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    private static Set<String> gramsOf(String text) {
+        return gramsOf(text, GRAM_SIZE);
+    }
+
+    private static Set<String> gramsOf(String text, int size) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + size <= text.length(); i++) {
+            grams.add(text.substring(i, i + size));
+        }
+        return grams;
+    }
+
+    // Триграммы для длинных запросов и все подстроки короче триграммы для коротких
+    private static Set<String> postingKeysOf(String text) {
+        Set<String> keys = new HashSet<>();
+        for (int size = 1; size <= GRAM_SIZE; size++) {
+            keys.addAll(gramsOf(text, size));
+        }
+        return keys;
+    }
+
+    private record Document(long itemId, String name, String description, Bm25Scorer.RankedDocument ranked) {
+        boolean contains(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        Set<String> grams() {
+            Set<String> grams = postingKeysOf(name);
+            grams.addAll(postingKeysOf(description));
+            return grams;
+        }
+    }
+}
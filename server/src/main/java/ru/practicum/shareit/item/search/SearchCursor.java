@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.error.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public class SearchCursor {
+    private static final String PREFIX = "item:";
+
+    public static String encode(long lastItemId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastItemId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!value.startsWith(PREFIX)) {
+                throw new ValidationException("Некорректный курсор: " + cursor);
+            }
+            return Long.parseLong(value.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Некорректный курсор: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.item.search.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.Bm25Scorer;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchProperties;
+import ru.practicum.shareit.item.search.ItemTextIndex;
+import ru.practicum.shareit.persistence.OffsetPageRequest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "database", matchIfMissing = true)
+public class DatabaseItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+    private final ItemSearchProperties properties;
+
+    private static final Sort SORT_BY_ID = Sort.by(Sort.Direction.ASC, "id");
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        // Смещение точное, как у индекса: страница начинается ровно с from-го совпадения
+        return itemRepository.searchWithPaging(ItemTextIndex.normalize(text),
+                OffsetPageRequest.of(from, size, SORT_BY_ID)).getContent();
+    }
+
+    @Override
+    public List<Item> searchAfter(String text, long afterId, int size) {
+        return itemRepository.searchAfter(ItemTextIndex.normalize(text), afterId, PageRequest.of(0, size));
+    }
+
+    @Override
+    public List<Item> searchRanked(String text, int limit) {
+        String query = ItemTextIndex.normalize(text);
+        // Оцениваются только тексты первых maxRankedCandidates совпадений, вещи загружаются лишь для лучших
+        List<Bm25Scorer.RankedDocument> documents = itemRepository.searchTexts(query,
+                        PageRequest.of(0, properties.getMaxRankedCandidates())).stream()
+                .map(item -> Bm25Scorer.RankedDocument.of(item.getId(), item.getName(), item.getDescription()))
+                .toList();
+        // Полной статистики по вещам у базы нет, поэтому корпусом для BM25 служат сами совпадения
+        Bm25Scorer scorer = Bm25Scorer.forCandidates(ItemTextIndex.tokenize(query), documents);
+        List<Long> itemIds = scorer.topK(documents, limit);
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return itemIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public void index(Item item) {
+        // Поиск выполняется запросом к базе, отдельный индекс не ведётся
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.item.search.impl;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemText;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemTextIndex;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "index")
+public class InvertedIndexItemSearchEngine implements ItemSearchEngine {
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final ItemTextIndex index = new ItemTextIndex();
+
+    @PostConstruct
+    public void rebuild() {
+        log.info("Rebuilding item search index");
+        index.clear();
+        long lastId = 0;
+        List<ItemText> batch;
+        do {
+            batch = itemRepository.findAvailableTextsAfter(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            for (ItemText itemText : batch) {
+                index.put(itemText.getId(), itemText.getName(), itemText.getDescription(), true);
+                lastId = itemText.getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        log.info("Item search index rebuilt with {} items", index.size());
+    }
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        List<Long> itemIds = index.search(text);
+        log.info("Item search index matched {} items for text: {}", itemIds.size(), text);
+        int fromIndex = Math.min(from, itemIds.size());
+        return loadSorted(itemIds.subList(fromIndex, Math.min(fromIndex + size, itemIds.size())));
+    }
+
+    @Override
+    public List<Item> searchAfter(String text, long afterId, int size) {
+        List<Long> itemIds = index.search(text);
+        log.info("Item search index matched {} items for text: {}", itemIds.size(), text);
+        int position = Collections.binarySearch(itemIds, afterId);
+        int fromIndex = position >= 0 ? position + 1 : -position - 1;
+        return loadSorted(itemIds.subList(fromIndex, Math.min(fromIndex + size, itemIds.size())));
+    }
+
+    @Override
+    public List<Item> searchRanked(String text, int limit) {
+        List<Long> itemIds = index.searchRanked(text, limit);
+        log.info("Item search index ranked {} items for text: {}", itemIds.size(), text);
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return itemIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public void index(Item item) {
+        long itemId = item.getId();
+        String name = item.getName();
+        String description = item.getDescription();
+        boolean available = Boolean.TRUE.equals(item.getIsAvailable());
+
+        // Изменения попадают в индекс только после фиксации транзакции
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    index.put(itemId, name, description, available);
+                }
+            });
+        } else {
+            index.put(itemId, name, description, available);
+        }
+    }
+
+    private List<Item> loadSorted(List<Long> itemIds) {
+        return itemRepository.findAllById(itemIds).stream()
+                .sorted(Comparator.comparing(Item::getId))
+                .toList();
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ItemImportService {
+    /**
+     * Загружает вещи пользователя из JSON-массива или NDJSON, читая тело запроса потоком.
+     */
+    ItemImportResultDto importItems(Long userId, InputStream body) throws IOException;
+}
@@ -1,9 +1,12 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDetailsWithBookingDatesDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchPageDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -15,10 +18,16 @@ public interface ItemService {
 
     List<ItemDto> getItemsByOwner(Long userId);
 
-    List<ItemDto> searchItems(String text);
+    List<ItemDto> searchItems(String text, int from, int size);
+
+    ItemSearchPageDto searchItemsAfter(String text, String cursor, int size);
+
+    List<ItemDto> searchItemsRanked(String text, int from, int size);
 
     ItemDetailsWithBookingDatesDto getItemDetailsWithBookings(Long itemId);
 
+    List<FreeIntervalDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
     CommentDto addComment(Long itemId, Long userId, CommentDto commentDto);
 
     List<CommentDto> getCommentsByItemId(Long itemId, Long userId);
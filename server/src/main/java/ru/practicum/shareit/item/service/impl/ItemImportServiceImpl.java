@@ -0,0 +1,228 @@
+package ru.practicum.shareit.item.service.impl;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.pointer.ItemBookingPointers;
+import ru.practicum.shareit.error.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemImportService;
+import ru.practicum.shareit.persistence.BatchWriter;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.cache.UserCache;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.validation.ValidationGroups;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Потоковая загрузка вещей: тело запроса разбирается по одному элементу, проверенные строки копятся порцией,
+ * для порции одним запросом находятся запросы вещей, и она записывается пакетами через BatchWriter.
+ * В памяти одновременно находится не больше одной порции. Пустые записи указателей бронирований создаются
+ * после фиксации порции; если этого не случилось, чтение рассчитывает их по бронированиям.
+ */
+@Slf4j
+@Service
+public class ItemImportServiceImpl implements ItemImportService {
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final BatchWriter batchWriter;
+    private final ItemRequestRepository itemRequestRepository;
+    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemBookingPointers itemBookingPointers;
+    private final int chunkSize;
+
+    public ItemImportServiceImpl(ObjectMapper objectMapper,
+                                 Validator validator,
+                                 BatchWriter batchWriter,
+                                 ItemRequestRepository itemRequestRepository,
+                                 UserRepository userRepository,
+                                 UserCache userCache,
+                                 ItemSearchEngine itemSearchEngine,
+                                 ItemBookingPointers itemBookingPointers,
+                                 @Value("${shareit.batch.rows-per-transaction:1000}") int chunkSize) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchWriter = batchWriter;
+        this.itemRequestRepository = itemRequestRepository;
+        this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.itemSearchEngine = itemSearchEngine;
+        this.itemBookingPointers = itemBookingPointers;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public ItemImportResultDto importItems(Long userId, InputStream body) throws IOException {
+        log.info("Attempting to import items for user id: {}", userId);
+        if (!userCache.exists(userId)) {
+            log.error("User not found with id: {}", userId);
+            throw new NotFoundException("User not found");
+        }
+        Import state = new Import(userRepository.getReferenceById(userId));
+
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            JsonToken token = nextToken(parser, state);
+            // Массив разворачивается, NDJSON - это последовательность объектов верхнего уровня
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = nextToken(parser, state);
+            }
+            while (token != null && token != JsonToken.END_ARRAY) {
+                long row = ++state.rows;
+                JsonNode node;
+                try {
+                    node = parser.readValueAsTree();
+                } catch (JsonProcessingException e) {
+                    // После синтаксической ошибки границы следующих строк неизвестны
+                    state.fail(row, "Некорректный JSON: " + e.getOriginalMessage());
+                    break;
+                }
+                accept(state, row, node);
+                token = nextToken(parser, state);
+            }
+        }
+        flush(state);
+
+        log.info("Imported {} items for user id: {}, {} rows failed", state.imported, userId, state.failed);
+        return new ItemImportResultDto(state.imported, state.failed, state.errors);
+    }
+
+    private JsonToken nextToken(JsonParser parser, Import state) throws IOException {
+        try {
+            return parser.nextToken();
+        } catch (JsonProcessingException e) {
+            state.fail(state.rows + 1, "Некорректный JSON: " + e.getOriginalMessage());
+            return null;
+        }
+    }
+
+    private void accept(Import state, long row, JsonNode node) {
+        ItemDto itemDto;
+        try {
+            if (!node.isObject()) {
+                throw new IllegalArgumentException("Строка должна быть JSON-объектом");
+            }
+            itemDto = objectMapper.treeToValue(node, ItemDto.class);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            state.fail(row, e instanceof JsonProcessingException jsonException
+                    ? "Некорректное значение поля: " + jsonException.getOriginalMessage() : e.getMessage());
+            return;
+        }
+
+        String error = validate(itemDto);
+        if (error != null) {
+            state.fail(row, error);
+            return;
+        }
+        state.rowNumbers.add(row);
+        state.pending.add(itemDto);
+        if (state.pending.size() >= chunkSize) {
+            flush(state);
+        }
+    }
+
+    // Те же ограничения и группа, что при создании вещи через POST /items
+    private String validate(ItemDto itemDto) {
+        Set<ConstraintViolation<ItemDto>> violations = validator.validate(itemDto, ValidationGroups.Create.class);
+        return violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(ConstraintViolation::getMessage)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private void flush(Import state) {
+        if (state.pending.isEmpty()) {
+            return;
+        }
+        List<Long> requestIds = state.pending.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<Long, ItemRequest> requests = requestIds.isEmpty() ? Map.of()
+                : itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        List<Item> items = new ArrayList<>(state.pending.size());
+        List<Long> itemRows = new ArrayList<>(state.pending.size());
+        for (int i = 0; i < state.pending.size(); i++) {
+            ItemDto itemDto = state.pending.get(i);
+            ItemRequest request = null;
+            if (itemDto.getRequestId() != null) {
+                request = requests.get(itemDto.getRequestId());
+                if (request == null) {
+                    state.fail(state.rowNumbers.get(i),
+                            String.format("Запрос с id %d не найден", itemDto.getRequestId()));
+                    continue;
+                }
+            }
+            itemDto.setId(null);
+            items.add(ItemMapper.toEntity(itemDto, state.owner, request));
+            itemRows.add(state.rowNumbers.get(i));
+        }
+        state.pending.clear();
+        state.rowNumbers.clear();
+
+        try {
+            state.imported += batchWriter.persistAll(items.iterator(),
+                    committed -> {
+                        itemBookingPointers.create(committed.stream().map(Item::getId).toList());
+                        committed.forEach(itemSearchEngine::index);
+                    });
+        } catch (DataAccessException e) {
+            log.error("Failed to import chunk of {} items", items.size(), e);
+            itemRows.forEach(row -> state.fail(row, "Не удалось сохранить вещь"));
+        }
+    }
+
+    private static class Import {
+        private final User owner;
+        private final List<ItemDto> pending = new ArrayList<>();
+        private final List<Long> rowNumbers = new ArrayList<>();
+        private final List<ItemImportErrorDto> errors = new ArrayList<>();
+        private long rows;
+        private long imported;
+        private long failed;
+
+        Import(User owner) {
+            this.owner = owner;
+        }
+
+        void fail(long row, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ItemImportErrorDto(row, message));
+            }
+        }
+    }
+}
@@ -6,29 +6,43 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.enums.Status;
-import ru.practicum.shareit.booking.model.*;
+import ru.practicum.shareit.booking.availability.AvailabilityCalendar;
+import ru.practicum.shareit.booking.model.BookingDetails;
+import ru.practicum.shareit.booking.model.LastBooking;
+import ru.practicum.shareit.booking.model.NextBooking;
+import ru.practicum.shareit.booking.pointer.ItemBookingPointers;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.error.exception.NotFoundException;
 import ru.practicum.shareit.error.exception.ValidationException;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
+import ru.practicum.shareit.item.cache.ItemView;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDetailsWithBookingDatesDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchPageDto;
 import ru.practicum.shareit.item.dto.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentWithAuthor;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchProperties;
+import ru.practicum.shareit.item.search.SearchCursor;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.cache.CachedUser;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -40,14 +54,22 @@ public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
+    private final ItemBookingPointers itemBookingPointers;
+    private final AvailabilityCalendar availabilityCalendar;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemSearchProperties itemSearchProperties;
+    private final ItemDetailsCache itemDetailsCache;
+    private final UserCache userCache;
 
+    @Transactional
     @Override
     public ItemDto addItem(Long userId, ItemDto itemDto) {
         log.info("Attempting to add a new item for user id: {}", userId);
 
-        User owner = getUserById(userId);
+        getUserById(userId);
+        User owner = userRepository.getReferenceById(userId);
         ItemRequest request = null;
         if (itemDto.getRequestId() != null) {
             request = itemRequestRepository.findById(itemDto.getRequestId())
@@ -57,6 +79,8 @@ public class ItemServiceImpl implements ItemService {
         Item item = ItemMapper.toEntity(itemDto, owner, request);
 
         item = itemRepository.save(item);
+        itemBookingPointers.create(List.of(item.getId()));
+        itemSearchEngine.index(item);
         log.info("Successfully added item with id: {}", item.getId());
         return ItemMapper.toDto(item, null, null);
     }
@@ -74,10 +98,11 @@ public class ItemServiceImpl implements ItemService {
         updateItemDetails(item, itemDto);
 
         item = itemRepository.save(item);
+        itemSearchEngine.index(item);
+        itemDetailsCache.evictAll(itemId);
 
-        LocalDateTime now = LocalDateTime.now();
         // Получаем детали бронирований
-        BookingDetails bookingDetails = getBookingDetails(itemId, now);
+        BookingDetails bookingDetails = itemBookingPointers.find(itemId);
         LastBooking lastBooking = bookingDetails.lastBooking();
         NextBooking nextBooking = bookingDetails.nextBooking();
 
@@ -88,61 +113,42 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public ItemDetailsWithBookingDatesDto getItem(Long itemId, Long userId) {
         log.info("Attempting to retrieve item with id: {}", itemId);
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new NotFoundException("Item not found"));
-
-        LocalDateTime now = LocalDateTime.now();
-        log.info("Current time: {}", now);
-
-        BookingDetails bookingDetails = getBookingDetails(itemId, now);
-
-        LastBooking lastBooking = null;
-        NextBooking nextBooking = null;
-
-        if (isItemOwner(item, userId)) {
-            lastBooking = bookingDetails.lastBooking();
-            nextBooking = bookingDetails.nextBooking();
-        }
-
-        List<CommentDto> comments = mapCommentsToDto(commentRepository.findByItem_Id(itemId));
+        ItemView view = itemDetailsCache.getView(itemId, this::loadItemView);
 
-        ItemDetailsWithBookingDatesDto itemDto = ItemMapper.toItemDetailsWithBookingDatesDto(
-                item, lastBooking, nextBooking, comments);
+        // Бронирования видит только владелец, остальным карточка отдаётся из кэша целиком
+        BookingDetails bookingDetails = view.ownerId().equals(userId)
+                ? itemDetailsCache.getBookings(itemId, id -> itemBookingPointers.find(id))
+                : new BookingDetails(null, null);
 
-        log.info("Successfully retrieved item with id: {}", item.getId());
-        return itemDto;
+        log.info("Successfully retrieved item with id: {}", itemId);
+        return toItemDetailsDto(view, bookingDetails);
     }
 
     @Override
     public ItemDetailsWithBookingDatesDto getItemDetailsWithBookings(Long itemId) {
         log.info("getItemDetailsWithBookings Attempting to retrieve item with id: {}", itemId);
+        ItemView view = itemDetailsCache.getView(itemId, this::loadItemView);
+        BookingDetails bookingDetails = itemDetailsCache.getBookings(itemId,
+                id -> itemBookingPointers.find(id));
 
-        Optional<Item> optionalItem = itemRepository.findById(itemId);
-        if (optionalItem.isEmpty()) {
-            log.error("getItemDetailsWithBookings Item not found with id: {}", itemId);
-            throw new RuntimeException("Item not found");
-        }
-
-        Item item = optionalItem.get();
-        log.info("Item retrieved: {}", item);
-
-        LocalDateTime now = LocalDateTime.now();
-        log.info("Current time now: {}", now);
-
-        // Получаем детали бронирований
-        BookingDetails bookingDetails = getBookingDetails(itemId, now);
-        LastBooking lastBooking = bookingDetails.lastBooking();
-        NextBooking nextBooking = bookingDetails.nextBooking();
-
-        List<CommentDto> comments = mapCommentsToDto(commentRepository.findByItem_Id(itemId));
-
-        log.info("Retrieved comments: {}", comments);
+        log.info("getItemDetailsWithBookings Successfully retrieved item with id: {}", itemId);
+        return toItemDetailsDto(view, bookingDetails);
+    }
 
-        ItemDetailsWithBookingDatesDto itemDto = ItemMapper.toItemDetailsWithBookingDatesDto(
-                item, lastBooking, nextBooking, comments);
+    @Override
+    public List<FreeIntervalDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        log.info("Attempting to retrieve free intervals of item id: {} from: {} to: {}", itemId, from, to);
+        ItemView view = itemDetailsCache.getView(itemId, this::loadItemView);
+        if (!view.available()) {
+            // Недоступную вещь нельзя забронировать ни на какое время
+            return Collections.emptyList();
+        }
 
-        log.info("getItemDetailsWithBookings Successfully retrieved item with id: {}", item.getId());
-        return itemDto;
+        List<FreeIntervalDto> intervals = availabilityCalendar.freeIntervals(itemId, from, to).stream()
+                .map(interval -> new FreeIntervalDto(interval.start(), interval.end()))
+                .collect(Collectors.toList());
+        log.info("Found {} free intervals of item id: {}", intervals.size(), itemId);
+        return intervals;
     }
 
     @Override
@@ -151,12 +157,14 @@ public class ItemServiceImpl implements ItemService {
         List<Item> items = itemRepository.findByOwnerId(userId);
         log.info("Successfully retrieved {} items for owner with id: {}", items.size(), userId);
 
-        LocalDateTime now = LocalDateTime.now();
+        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+        // Детали бронирований и комментарии для всех вещей владельца получаем одним пакетом
+        Map<Long, BookingDetails> bookingDetailsByItemId = itemBookingPointers.find(itemIds);
+        Map<Long, List<CommentDto>> commentsByItemId = getComments(itemIds);
 
         List<ItemDto> itemDtos = items.stream()
                 .map(item -> {
-                    // Получаем детали бронирований
-                    BookingDetails bookingDetails = getBookingDetails(item.getId(), now);
+                    BookingDetails bookingDetails = bookingDetailsByItemId.get(item.getId());
                     LastBooking lastBooking = bookingDetails.lastBooking();
                     NextBooking nextBooking = bookingDetails.nextBooking();
 
@@ -165,7 +173,7 @@ public class ItemServiceImpl implements ItemService {
                     Long requestId = item.getRequest() != null ? item.getRequest().getId() : null;
                     Long ownerId = item.getOwner() != null ? item.getOwner().getId() : null;
 
-                    List<CommentDto> comments = mapCommentsToDto(commentRepository.findByItem_Id(item.getId()));
+                    List<CommentDto> comments = commentsByItemId.getOrDefault(item.getId(), Collections.emptyList());
 
                     return new ItemDto(
                             item.getId(),
@@ -186,19 +194,59 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public List<ItemDto> searchItems(String text) {
-        log.info("Attempting to search items with text: {}", text);
+    public List<ItemDto> searchItems(String text, int from, int size) {
+        log.info("Attempting to search items with text: {}, from: {}, size: {}", text, from, size);
         if (text == null || text.trim().isEmpty()) {
             log.info("Search text is empty or null, returning empty list.");
             return Collections.emptyList();
         }
-        List<Item> items = itemRepository.search(text);
+        List<Item> items = itemSearchEngine.search(text, from, limitPageSize(from, size));
         log.info("Successfully found {} items matching text: {}", items.size(), text);
         return items.stream()
                 .map(item -> ItemMapper.toDto(item, null, null))
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public ItemSearchPageDto searchItemsAfter(String text, String cursor, int size) {
+        log.info("Attempting to search items with text: {}, cursor: {}, size: {}", text, cursor, size);
+        if (text == null || text.trim().isEmpty()) {
+            log.info("Search text is empty or null, returning empty page.");
+            return new ItemSearchPageDto(Collections.emptyList(), null);
+        }
+        int pageSize = limitPageSize(0, size);
+        List<Item> items = itemSearchEngine.searchAfter(text, SearchCursor.decode(cursor), pageSize);
+        log.info("Successfully found {} items matching text: {} after cursor: {}", items.size(), text, cursor);
+
+        // Неполная страница - последняя, курсор на следующую не выдаётся
+        String nextCursor = items.size() == pageSize ? SearchCursor.encode(items.get(items.size() - 1).getId()) : null;
+        return new ItemSearchPageDto(items.stream()
+                .map(item -> ItemMapper.toDto(item, null, null))
+                .collect(Collectors.toList()), nextCursor);
+    }
+
+    @Override
+    public List<ItemDto> searchItemsRanked(String text, int from, int size) {
+        log.info("Attempting to rank items for text: {}, from: {}, size: {}", text, from, size);
+        if (text == null || text.trim().isEmpty()) {
+            log.info("Search text is empty or null, returning empty list.");
+            return Collections.emptyList();
+        }
+        int pageSize = limitPageSize(from, size);
+        int maxRankedResults = itemSearchProperties.getMaxRankedResults();
+        if (from >= maxRankedResults) {
+            log.error("Ranked search page is out of window: from={}, max={}", from, maxRankedResults);
+            throw new ValidationException(String.format(
+                    "Ранжированный поиск возвращает не больше %d результатов, from=%d", maxRankedResults, from));
+        }
+        List<Item> items = itemSearchEngine.searchRanked(text, Math.min(from + pageSize, maxRankedResults));
+        log.info("Successfully ranked {} items matching text: {}", items.size(), text);
+        return items.stream()
+                .skip(from)
+                .map(item -> ItemMapper.toDto(item, null, null))
+                .collect(Collectors.toList());
+    }
+
     @Override
     public CommentDto addComment(Long itemId, Long userId, CommentDto commentDto) {
         log.info("Attempting to add comment for itemId: {} by userId: {}", itemId, userId);
@@ -208,7 +256,7 @@ public class ItemServiceImpl implements ItemService {
                     log.error("Item not found with id: {}", itemId);
                     return new NotFoundException("Item not found");
                 });
-        User author = getUserById(userId);
+        CachedUser author = getUserById(userId);
 
         boolean hasBooked = bookingRepository.existsByItemIdAndBookerIdAndEndDateBefore(
                 itemId, userId, LocalDateTime.now());
@@ -223,16 +271,17 @@ public class ItemServiceImpl implements ItemService {
         Comment comment = new Comment();
         comment.setText(commentDto.getText());
         comment.setItem(item);
-        comment.setUser(author);
+        comment.setUser(userRepository.getReferenceById(userId));
         comment.setCreated(LocalDateTime.now());
-        log.info("Adding Comment with text {}, item {}, user {}", comment.getText(), comment.getItem(), comment.getUser());
+        log.info("Adding Comment with text {}, item {}, user {}", comment.getText(), itemId, userId);
         Comment savedComment = commentRepository.save(comment);
+        itemDetailsCache.evictView(itemId);
         log.info("Comment added successfully with id: {}", savedComment.getId());
 
         return new CommentDto(
                 savedComment.getId(),
                 savedComment.getText(),
-                savedComment.getUser().getName(),
+                author.name(),
                 savedComment.getCreated()
         );
     }
@@ -240,7 +289,7 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public List<CommentDto> getCommentsByItemId(Long itemId, Long userId) {
         log.info("Fetching comments for itemId: {}", itemId);
-        List<CommentDto> comments = mapCommentsToDto(commentRepository.findByItem_Id(itemId));
+        List<CommentDto> comments = getComments(itemId);
 
         return comments.stream()
                 .map(comment -> new CommentDto(
@@ -252,20 +301,33 @@ public class ItemServiceImpl implements ItemService {
                 .collect(Collectors.toList());
     }
 
-    private Booking getLastBooking(Long itemId, LocalDateTime now) {
-        log.info("Retrieving last booking for item id: {} before current time: {}", itemId, now);
-        return bookingRepository.findByItem_IdAndEndDateBeforeOrderByEndDateDesc(itemId, now)
-                .stream()
-                .findFirst()
-                .orElse(null);
+    private ItemView loadItemView(Long itemId) {
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> {
+                    log.error("Item not found with id: {}", itemId);
+                    return new NotFoundException("Item not found");
+                });
+        List<ItemView.Comment> comments = commentRepository.findWithAuthorByItemIds(List.of(itemId)).stream()
+                .map(comment -> new ItemView.Comment(comment.getId(), comment.getText(), comment.getAuthorId(),
+                        comment.getAuthorName(), comment.getCreated()))
+                .toList();
+        return new ItemView(item.getId(), item.getName(), item.getDescription(), item.getIsAvailable(),
+                item.getOwner().getId(), comments);
     }
 
-    private Booking getNextBooking(Long itemId, LocalDateTime now) {
-        log.info("Retrieving next booking for item id: {} after current time: {}", itemId, now);
-        return bookingRepository.findByItem_IdAndStartDateAfterOrderByStartDateAsc(itemId, now)
-                .stream()
-                .findFirst()
-                .orElse(null);
+    private ItemDetailsWithBookingDatesDto toItemDetailsDto(ItemView view, BookingDetails bookingDetails) {
+        Map<Long, CachedUser> authors = userCache.findAll(view.comments().stream()
+                .map(ItemView.Comment::authorId)
+                .collect(Collectors.toSet()));
+        List<CommentDto> comments = view.comments().stream()
+                .map(comment -> new CommentDto(comment.id(), comment.text(),
+                        authors.containsKey(comment.authorId())
+                                ? authors.get(comment.authorId()).name()
+                                : comment.authorName(),
+                        comment.created()))
+                .collect(Collectors.toList());
+        return new ItemDetailsWithBookingDatesDto(view.id(), view.name(), view.description(), view.available(),
+                bookingDetails.nextBooking(), bookingDetails.lastBooking(), comments);
     }
 
     private boolean isItemOwner(Item item, Long userId) {
@@ -278,25 +340,33 @@ public class ItemServiceImpl implements ItemService {
         return isOwner;
     }
 
-    private List<CommentDto> mapCommentsToDto(List<Comment> comments) {
-        return comments.stream()
-                .map(comment -> new CommentDto(
-                        comment.getId(),
-                        comment.getText(),
-                        comment.getUser() != null ? comment.getUser().getName() : "Unknown",
-                        comment.getCreated()))
-                .collect(Collectors.toList());
+    private List<CommentDto> getComments(Long itemId) {
+        return getComments(List.of(itemId)).getOrDefault(itemId, Collections.emptyList());
     }
 
-    private LastBooking mapToLastBooking(Booking booking) {
-        return booking != null ? new LastBooking(booking.getId(), booking.getBooker().getId()) : null;
+    private Map<Long, List<CommentDto>> getComments(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return commentRepository.findWithAuthorByItemIds(itemIds).stream()
+                .collect(Collectors.groupingBy(CommentWithAuthor::getItemId,
+                        Collectors.mapping(comment -> new CommentDto(
+                                comment.getId(),
+                                comment.getText(),
+                                comment.getAuthorName(),
+                                comment.getCreated()), Collectors.toList())));
     }
 
-    private NextBooking mapToNextBooking(Booking booking) {
-        return booking != null ? new NextBooking(booking.getId(), booking.getBooker().getId()) : null;
-    }
 
 
+    private int limitPageSize(int from, int size) {
+        if (from < 0 || size <= 0) {
+            log.error("Invalid search page parameters: from={}, size={}", from, size);
+            throw new ValidationException(String.format(
+                    "Некорректные параметры страницы: from=%d, size=%d", from, size));
+        }
+        return Math.min(size, itemSearchProperties.getMaxPageSize());
+    }
 
     private void updateItemDetails(Item item, ItemDto itemDto) {
         if (itemDto.getName() != null) {
@@ -310,35 +380,11 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
-    private User getUserById(Long userId) {
-        return userRepository.findById(userId)
+    private CachedUser getUserById(Long userId) {
+        return userCache.find(userId)
                 .orElseThrow(() -> {
                     log.error("Author not found with id: {}", userId);
                     return new NotFoundException("Author not found");
                 });
     }
-
-    private BookingDetails getBookingDetails(Long itemId, LocalDateTime now) {
-
-        List<Booking> bookings = bookingRepository.findByItem_IdAndStatusOrderByEndDateDesc(itemId, Status.APPROVED);
-        log.info("Bookings: {}", bookings);
-        Booking lastBookingEntity = bookings.stream()
-                .filter(b -> b.getEndDate().isBefore(now) || bookings.size() == 1)
-                .findFirst()
-                .orElse(null);
-        log.info("Last Booking Entity: {}", lastBookingEntity);
-        List<Booking> futureBookings = bookingRepository.findByItem_IdAndStatusOrderByStartDateAsc(itemId, Status.APPROVED);
-        log.info("Future Bookings: {}", futureBookings);
-        Booking nextBookingEntity = futureBookings.stream()
-                .filter(b -> b.getStartDate().isAfter(now))
-                .findFirst()
-                .orElse(null);
-        log.info("Next Booking Entity: {}", nextBookingEntity);
-
-        // Преобразование в LastBooking и NextBooking
-        LastBooking lastBooking = mapToLastBooking(lastBookingEntity);
-        NextBooking nextBooking = mapToNextBooking(nextBookingEntity);
-
-        return new BookingDetails(lastBooking, nextBooking);
-    }
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.persistence;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Пакетная запись новых сущностей для массовой загрузки. Сущности сохраняются порциями по batchSize:
+ * id выделяются блоками из последовательностей, порция уходит одним пакетом INSERT,
+ * после чего контекст очищается, чтобы память не росла с числом строк.
+ * Каждые rowsPerTransaction строк фиксируются отдельной транзакцией.
+ */
+@Slf4j
+@Component
+public class BatchWriter {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int rowsPerTransaction;
+
+    public BatchWriter(PlatformTransactionManager transactionManager,
+                       @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize,
+                       @Value("${shareit.batch.rows-per-transaction:1000}") int rowsPerTransaction) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.rowsPerTransaction = Math.max(rowsPerTransaction, batchSize);
+    }
+
+    public <T> long persistAll(Iterable<T> entities) {
+        return persistAll(entities.iterator(), chunk -> {
+        });
+    }
+
+    /**
+     * Сохраняет все сущности итератора и возвращает их число. afterCommit получает каждую
+     * зафиксированную порцию с присвоенными id, например для обновления индексов в памяти.
+     */
+    public <T> long persistAll(Iterator<T> entities, Consumer<List<T>> afterCommit) {
+        long written = 0;
+        while (entities.hasNext()) {
+            List<T> chunk = new ArrayList<>(rowsPerTransaction);
+            while (entities.hasNext() && chunk.size() < rowsPerTransaction) {
+                chunk.add(entities.next());
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < chunk.size(); i++) {
+                    entityManager.persist(chunk.get(i));
+                    if ((i + 1) % batchSize == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            afterCommit.accept(chunk);
+            written += chunk.size();
+            log.debug("Persisted {} entities", written);
+        }
+        return written;
+    }
+}
@@ -5,6 +5,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.error.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.mapper.ItemMapper;
@@ -15,6 +16,7 @@ import ru.practicum.shareit.request.dto.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -25,6 +27,7 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional
 @RequiredArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
     private static final Sort SORT = Sort.by(Sort.Direction.DESC, "created");
@@ -32,14 +35,17 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final UserCache userCache;
 
     @Override
     public ItemRequestNewDto addRequest(Long userId, ItemRequestNewDto itemRequestNewDto) {
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(itemRequestNewDto);
 
 
-        User requestor = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User not found"));
+        if (!userCache.exists(userId)) {
+            throw new NotFoundException("User not found");
+        }
+        User requestor = userRepository.getReferenceById(userId);
 
 
         itemRequest.setRequestor(requestor);
@@ -107,9 +113,10 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return requestDto;
     }
 
-    private User checkUser(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format("Пользователь с id %d не найден", userId)));
+    private void checkUser(Long userId) {
+        if (!userCache.exists(userId)) {
+            throw new NotFoundException(String.format("Пользователь с id %d не найден", userId));
+        }
     }
 
     private void addItemsToRequests(List<ItemRequestDto> itemRequestDtos) {
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.user.cache;
+
+import ru.practicum.shareit.user.model.User;
+
+public record CachedUser(Long id, String name, String email) {
+    public static CachedUser of(User user) {
+        return new CachedUser(user.getId(), user.getName(), user.getEmail());
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.user.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Кэш пользователей по id для проверок существования X-Sharer-User-Id.
+ * Отсутствие пользователя тоже кэшируется, на более короткий срок.
+ */
+@Slf4j
+@Component
+public class UserCache {
+    private final UserRepository userRepository;
+    private final UserInvalidationBus invalidationBus;
+    private final Cache<Long, Optional<CachedUser>> users;
+
+    public UserCache(UserRepository userRepository, UserInvalidationBus invalidationBus,
+                     UserCacheProperties properties, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.invalidationBus = invalidationBus;
+        users = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new Expiry<Long, Optional<CachedUser>>() {
+                    @Override
+                    public long expireAfterCreate(Long userId, Optional<CachedUser> user, long currentTime) {
+                        return (user.isPresent() ? properties.getTtl() : properties.getNegativeTtl()).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long userId, Optional<CachedUser> user, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(userId, user, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long userId, Optional<CachedUser> user, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "users");
+        invalidationBus.subscribe(users::invalidate);
+    }
+
+    public Optional<CachedUser> find(Long userId) {
+        return users.get(userId, id -> userRepository.findById(id).map(CachedUser::of));
+    }
+
+    /**
+     * Пользователи по набору id: отсутствующие в кэше загружаются одним запросом.
+     * Id, которых нет в базе, в результат не попадают.
+     */
+    public Map<Long, CachedUser> findAll(Collection<Long> userIds) {
+        Map<Long, CachedUser> found = new HashMap<>();
+        users.getAll(userIds, this::loadAll).forEach((id, user) -> user.ifPresent(u -> found.put(id, u)));
+        return found;
+    }
+
+    public boolean exists(Long userId) {
+        return find(userId).isPresent();
+    }
+
+    private Map<Long, Optional<CachedUser>> loadAll(Set<? extends Long> userIds) {
+        Map<Long, Optional<CachedUser>> loaded = new HashMap<>();
+        userIds.forEach(id -> loaded.put(id, Optional.empty()));
+        userRepository.findAllById(List.copyOf(userIds))
+                .forEach(user -> loaded.put(user.getId(), Optional.of(CachedUser.of(user))));
+        return loaded;
+    }
+
+    /**
+     * Сбрасывает запись сразу и ещё раз во всех экземплярах после фиксации транзакции,
+     * чтобы чтение до фиксации не оставило в кэше старое состояние.
+     */
+    public void invalidate(Long userId) {
+        users.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidationBus.publish(userId);
+                }
+            });
+        } else {
+            invalidationBus.publish(userId);
+        }
+        log.debug("Invalidated cached user id: {}", userId);
+    }
+}
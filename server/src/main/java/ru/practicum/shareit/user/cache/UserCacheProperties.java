@@ -0,0 +1,26 @@
+package ru.practicum.shareit.user.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "shareit.cache.users")
+public class UserCacheProperties {
+    private long maximumSize = 10_000;
+
+    private Duration ttl = Duration.ofMinutes(10);
+
+    // Неизвестные id помним недолго: пользователь с таким id может появиться на другом экземпляре
+    private Duration negativeTtl = Duration.ofSeconds(30);
+
+    // local - сброс только в своём процессе, jdbc - через таблицу user_cache_invalidations для нескольких экземпляров
+    private String bus = "local";
+
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    private Duration retention = Duration.ofHours(1);
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.user.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Рассылает id изменённых пользователей всем экземплярам сервера, включая текущий.
+ */
+public interface UserInvalidationBus {
+    void publish(Long userId);
+
+    void subscribe(Consumer<Long> listener);
+}
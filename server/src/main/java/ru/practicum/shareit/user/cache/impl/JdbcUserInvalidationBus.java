@@ -0,0 +1,108 @@
+package ru.practicum.shareit.user.cache.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.user.cache.UserCacheProperties;
+import ru.practicum.shareit.user.cache.UserInvalidationBus;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Шина сброса через общую таблицу: каждый экземпляр периодически перечитывает записи за последний интервал опроса.
+ * Время берётся из часов базы, а интервалы перекрываются на COMMIT_LAG, чтобы не потерять записи,
+ * зафиксированные позже своего created; повторный сброс одного id безвреден.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.cache.users.bus", havingValue = "jdbc")
+public class JdbcUserInvalidationBus implements UserInvalidationBus {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserCacheProperties properties;
+    private final List<Consumer<Long>> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-cache-invalidation");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Duration COMMIT_LAG = Duration.ofSeconds(5);
+
+    private LocalDateTime lastPolled;
+
+    public JdbcUserInvalidationBus(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                   UserCacheProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        // Публикация идёт из afterCommit, где соединение завершённой транзакции ещё привязано к потоку
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    public void start() {
+        lastPolled = databaseTime();
+        long interval = properties.getPollInterval().toMillis();
+        poller.scheduleWithFixedDelay(this::pollSafely, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("User cache invalidation bus started at: {}", lastPolled);
+    }
+
+    @PreDestroy
+    public void stop() {
+        poller.shutdownNow();
+    }
+
+    @Override
+    public void publish(Long userId) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "INSERT INTO user_cache_invalidations (user_id, created) VALUES (?, LOCALTIMESTAMP)", userId));
+        notifyListeners(userId);
+    }
+
+    @Override
+    public void subscribe(Consumer<Long> listener) {
+        listeners.add(listener);
+    }
+
+    void poll() {
+        LocalDateTime now = databaseTime();
+        List<Long> userIds = jdbcTemplate.queryForList(
+                "SELECT DISTINCT user_id FROM user_cache_invalidations WHERE created >= ?",
+                Long.class, Timestamp.valueOf(lastPolled.minus(COMMIT_LAG)));
+        userIds.forEach(this::notifyListeners);
+        lastPolled = now;
+
+        jdbcTemplate.update("DELETE FROM user_cache_invalidations WHERE created < ?",
+                Timestamp.valueOf(now.minus(properties.getRetention())));
+    }
+
+    private LocalDateTime databaseTime() {
+        return jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", Timestamp.class).toLocalDateTime();
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            log.warn("Failed to poll user cache invalidations", e);
+        }
+    }
+
+    private void notifyListeners(Long userId) {
+        listeners.forEach(listener -> listener.accept(userId));
+    }
+}
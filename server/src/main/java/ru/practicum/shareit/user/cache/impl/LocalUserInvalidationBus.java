@@ -0,0 +1,25 @@
+package ru.practicum.shareit.user.cache.impl;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.cache.UserInvalidationBus;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+@Component
+@ConditionalOnProperty(name = "shareit.cache.users.bus", havingValue = "local", matchIfMissing = true)
+public class LocalUserInvalidationBus implements UserInvalidationBus {
+    private final List<Consumer<Long>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(Long userId) {
+        listeners.forEach(listener -> listener.accept(userId));
+    }
+
+    @Override
+    public void subscribe(Consumer<Long> listener) {
+        listeners.add(listener);
+    }
+}
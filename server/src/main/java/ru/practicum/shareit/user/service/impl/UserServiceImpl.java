@@ -6,6 +6,8 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.error.exception.NotFoundException;
+import ru.practicum.shareit.user.cache.CachedUser;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import ru.practicum.shareit.user.dto.mapper.UserMapper;
@@ -23,6 +25,7 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
 
     @Override
     @Transactional
@@ -31,6 +34,8 @@ public class UserServiceImpl implements UserService {
 
         User user = UserMapper.toEntity(userDto);
         user = userRepository.save(user);
+        // Id мог быть закэширован как несуществующий
+        userCache.invalidate(user.getId());
         log.info("Successfully added user with id: {}", user.getId());
         return UserMapper.toDto(user);
     }
@@ -47,6 +52,7 @@ public class UserServiceImpl implements UserService {
             user.setEmail(userDto.getEmail());
         }
         user = userRepository.save(user);
+        userCache.invalidate(user.getId());
         log.info("Successfully updated user with id: {}", user.getId());
         return UserMapper.toDto(user);
     }
@@ -54,9 +60,13 @@ public class UserServiceImpl implements UserService {
     @Override
     public UserDto getUser(Long userId) {
         log.info("Attempting to retrieve user with id: {}", userId);
-        User user = findUserById(userId);
-        log.info("Successfully retrieved user with id: {}", user.getId());
-        return UserMapper.toDto(user);
+        CachedUser user = userCache.find(userId)
+                .orElseThrow(() -> {
+                    log.error("User not found with id: {}", userId);
+                    return new NotFoundException(String.format("Пользователь с id %d не найден", userId));
+                });
+        log.info("Successfully retrieved user with id: {}", user.id());
+        return new UserDto(user.id(), user.name(), user.email());
     }
 
     @Override
@@ -72,6 +82,7 @@ public class UserServiceImpl implements UserService {
         log.info("Attempting to delete user with id: {}", userId);
         findUserById(userId);
         userRepository.deleteById(userId);
+        userCache.invalidate(userId);
         log.info("Successfully deleted user with id: {}", userId);
     }
 
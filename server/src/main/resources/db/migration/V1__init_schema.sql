@@ -1,8 +1,3 @@
-drop table if exists booking_statuses, users, comments cascade;
-drop table if exists item_requests cascade;
-drop table if exists items cascade;
-drop table if exists bookings cascade;
-
 CREATE TABLE IF NOT EXISTS booking_statuses (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     status VARCHAR(50) NOT NULL UNIQUE
@@ -0,0 +1,11 @@
+INSERT INTO booking_statuses (status)
+SELECT s.status
+FROM (SELECT 'ALL' AS status UNION ALL
+      SELECT 'APPROVED' UNION ALL
+      SELECT 'CURRENT' UNION ALL
+      SELECT 'PAST' UNION ALL
+      SELECT 'FUTURE' UNION ALL
+      SELECT 'WAITING' UNION ALL
+      SELECT 'REJECTED' UNION ALL
+      SELECT 'CANCELED') s
+WHERE NOT EXISTS (SELECT 1 FROM booking_statuses b WHERE b.status = s.status);
@@ -0,0 +1,18 @@
+-- Следующее/последнее бронирование вещи и выборки по списку вещей
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_end ON bookings (item_id, end_date);
+-- Подтверждённые бронирования вещи: проверка пересечений и загрузка интервалов
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+-- Списки бронирований пользователя по всем состояниям, сортировка по началу
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date);
+-- Проверка права на отзыв: завершённое бронирование вещи пользователем
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_item_end ON bookings (booker_id, item_id, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_item_requests_requestor_created ON item_requests (requestor_id, created);
+CREATE INDEX IF NOT EXISTS idx_item_requests_created ON item_requests (created);
@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS user_cache_invalidations (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    user_id BIGINT NOT NULL,
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_user_cache_invalidation PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_cache_invalidations_created ON user_cache_invalidations (created);
@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS item_booking_pointers (
+    item_id BIGINT NOT NULL,
+    last_booking_id BIGINT,
+    last_booker_id BIGINT,
+    next_booking_id BIGINT,
+    next_booker_id BIGINT,
+    valid_until TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT pk_item_booking_pointer PRIMARY KEY (item_id),
+    CONSTRAINT fk_item_booking_pointer_item FOREIGN KEY (item_id) REFERENCES items (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_pointers_valid_until ON item_booking_pointers (valid_until);
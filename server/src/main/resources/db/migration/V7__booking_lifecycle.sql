@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS scheduler_leases (
+    name VARCHAR(100) NOT NULL,
+    lease_owner VARCHAR(255),
+    expires_at TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT pk_scheduler_lease PRIMARY KEY (name)
+);
+
+-- Загрузка событий планировщика: начала и окончания подтверждённых бронирований, начала ожидающих
+CREATE INDEX IF NOT EXISTS idx_bookings_status_start ON bookings (status, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_status_end ON bookings (status, end_date);
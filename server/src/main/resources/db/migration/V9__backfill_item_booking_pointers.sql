@@ -0,0 +1,31 @@
+-- Записи указателей для вещей, созданных до V5: те же правила, что у ItemBookingPointers.compute
+INSERT INTO item_booking_pointers (item_id, last_booking_id, last_booker_id, next_booking_id, next_booker_id, valid_until)
+SELECT i.id,
+       l.id,
+       l.booker_id,
+       n.id,
+       n.booker_id,
+       CASE WHEN w.next_start IS NULL OR w.next_end < w.next_start THEN w.next_end ELSE w.next_start END
+FROM items i
+LEFT JOIN (SELECT t.item_id, t.id, t.booker_id
+           FROM (SELECT c.item_id, c.id, c.booker_id,
+                        ROW_NUMBER() OVER (PARTITION BY c.item_id ORDER BY c.end_date DESC, c.id DESC) AS rn
+                 FROM (SELECT b.item_id, b.id, b.booker_id, b.end_date,
+                              COUNT(*) OVER (PARTITION BY b.item_id) AS approved_count
+                       FROM bookings b
+                       WHERE b.status = 'APPROVED') c
+                 WHERE c.end_date < LOCALTIMESTAMP OR c.approved_count = 1) t
+           WHERE t.rn = 1) l ON l.item_id = i.id
+LEFT JOIN (SELECT t.item_id, t.id, t.booker_id
+           FROM (SELECT b.item_id, b.id, b.booker_id,
+                        ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date, b.id) AS rn
+                 FROM bookings b
+                 WHERE b.status = 'APPROVED' AND b.start_date > LOCALTIMESTAMP) t
+           WHERE t.rn = 1) n ON n.item_id = i.id
+LEFT JOIN (SELECT b.item_id,
+                  MIN(CASE WHEN b.start_date > LOCALTIMESTAMP THEN b.start_date END) AS next_start,
+                  MIN(b.end_date) AS next_end
+           FROM bookings b
+           WHERE b.status = 'APPROVED' AND b.end_date >= LOCALTIMESTAMP
+           GROUP BY b.item_id) w ON w.item_id = i.id
+WHERE NOT EXISTS (SELECT 1 FROM item_booking_pointers p WHERE p.item_id = i.id);
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.booking.availability;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.error.exception.ValidationException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class AvailabilityCalendarTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private final BookingIntervalSet intervals = new BookingIntervalSet();
+
+    @Test
+    void freeIntervals_ShouldReturnGapsBetweenMergedBookings() {
+        intervals.add(1L, hour(2), hour(5));
+        intervals.add(2L, hour(4), hour(8));
+        intervals.add(3L, hour(10), hour(12));
+
+        List<TimeInterval> free = calendar(false).freeIntervals(1L, hour(0), hour(11));
+
+        assertEquals(List.of(new TimeInterval(hour(0), hour(2)), new TimeInterval(hour(8), hour(10))), free);
+    }
+
+    @Test
+    void freeIntervals_ShouldReturnWholePeriod_WhenNoBookings() {
+        assertEquals(List.of(new TimeInterval(hour(1), hour(30))), calendar(true).freeIntervals(1L, hour(1), hour(30)));
+    }
+
+    @Test
+    void freeIntervals_ShouldRejectEmptyOrTooLongPeriod() {
+        AvailabilityCalendar calendar = calendar(false);
+
+        assertThrows(ValidationException.class, () -> calendar.freeIntervals(1L, hour(5), hour(5)));
+        assertThrows(ValidationException.class, () -> calendar.freeIntervals(1L, hour(0), hour(24 * 400)));
+    }
+
+    @Test
+    void dayBitmaps_ShouldNarrowGapsToWholeMinutes() {
+        intervals.add(1L, hour(2).plusSeconds(30), hour(5).plusSeconds(10));
+        intervals.add(2L, hour(23), hour(26));
+
+        List<TimeInterval> free = calendar(true).freeIntervals(1L, hour(0), hour(48));
+
+        assertEquals(List.of(
+                new TimeInterval(hour(0), hour(2)),
+                new TimeInterval(hour(5).plusMinutes(1), hour(23)),
+                new TimeInterval(hour(26).plusMinutes(1), hour(48))), free);
+    }
+
+    @Test
+    void freeIntervals_ShouldAdmitBookingsInsideGaps_InBothModes() {
+        Random random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            LocalDateTime start = BASE.plusSeconds(random.nextInt(14 * 24 * 3600));
+            intervals.add(i, start, start.plusSeconds(60 + random.nextInt(12 * 3600)));
+        }
+        LocalDateTime from = BASE.plusHours(5).plusSeconds(17);
+        LocalDateTime to = BASE.plusDays(12).plusSeconds(41);
+
+        List<TimeInterval> exact = calendar(false).freeIntervals(1L, from, to);
+        List<TimeInterval> bitmaps = calendar(true).freeIntervals(1L, from, to);
+
+        for (TimeInterval free : exact) {
+            assertFalse(intervals.overlaps(free.start().plusNanos(1), free.end().minusNanos(1)));
+        }
+        for (TimeInterval free : bitmaps) {
+            assertFalse(intervals.overlaps(free.start().plusNanos(1), free.end().minusNanos(1)));
+            // Минутная карта может только сузить точный интервал
+            assertTrue(exact.stream().anyMatch(gap ->
+                    !gap.start().isAfter(free.start()) && !gap.end().isBefore(free.end())));
+        }
+    }
+
+    private AvailabilityCalendar calendar(boolean dayBitmaps) {
+        BookingAvailability availability = mock(BookingAvailability.class);
+        when(availability.approvedBlocks(anyLong(), any(), any()))
+                .thenAnswer(invocation -> intervals.blocksBetween(invocation.getArgument(1), invocation.getArgument(2)));
+        AvailabilityCalendarProperties properties = new AvailabilityCalendarProperties();
+        properties.setDayBitmaps(dayBitmaps);
+        return new AvailabilityCalendar(availability, properties, new SimpleMeterRegistry());
+    }
+
+    private static LocalDateTime hour(int hours) {
+        return BASE.plusHours(hours);
+    }
+}
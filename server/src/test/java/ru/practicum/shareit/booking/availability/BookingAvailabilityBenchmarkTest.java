@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking.availability;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.availability.impl.DatabaseBookingAvailability;
+import ru.practicum.shareit.booking.availability.impl.IntervalIndexBookingAvailability;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Сравнение проверки пересечений запросом findBookingsAtSameTime и интервальным индексом.
+ * Запуск: mvn test -pl server -Dtest=BookingAvailabilityBenchmarkTest -Dshareit.benchmark=true
+ */
+@Slf4j
+@SpringBootTest
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+class BookingAvailabilityBenchmarkTest {
+    private static final int BOOKINGS = 20_000;
+    private static final int CHECKS = 2_000;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void compareDatabaseQueryWithIntervalIndex() {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@benchmark").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker@benchmark").build());
+        Item item = itemRepository.save(Item.builder().name("Дрель").description("Популярная дрель")
+                .isAvailable(true).owner(owner).build());
+
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+        List<Booking> bookings = new ArrayList<>(BOOKINGS);
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookings.add(new Booking(null, base.plusHours(3L * i), base.plusHours(3L * i + 1), item, booker,
+                    Status.APPROVED));
+        }
+        bookingRepository.saveAll(bookings);
+
+        BookingAvailability database = new DatabaseBookingAvailability(bookingRepository);
+        BookingAvailability index = new IntervalIndexBookingAvailability(bookingRepository, 10_000,
+                new SimpleMeterRegistry());
+        // Первое обращение загружает бронирования вещи в индекс
+        index.hasApprovedOverlap(item.getId(), base, base);
+
+        Random random = new Random(42);
+        List<LocalDateTime> starts = new ArrayList<>(CHECKS);
+        for (int i = 0; i < CHECKS; i++) {
+            starts.add(base.plusMinutes(random.nextInt(BOOKINGS * 180)));
+        }
+
+        long databaseHits = 0;
+        long databaseStarted = System.nanoTime();
+        for (LocalDateTime start : starts) {
+            databaseHits += database.hasApprovedOverlap(item.getId(), start, start.plusMinutes(30)) ? 1 : 0;
+        }
+        long databaseNanos = System.nanoTime() - databaseStarted;
+
+        long indexHits = 0;
+        long indexStarted = System.nanoTime();
+        for (LocalDateTime start : starts) {
+            indexHits += index.hasApprovedOverlap(item.getId(), start, start.plusMinutes(30)) ? 1 : 0;
+        }
+        long indexNanos = System.nanoTime() - indexStarted;
+
+        log.info("{} checks against {} bookings: database {} us/check, index {} us/check",
+                CHECKS, BOOKINGS, databaseNanos / 1000 / CHECKS, indexNanos / 1000 / CHECKS);
+        assertEquals(databaseHits, indexHits);
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingIntervalSetTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private BookingIntervalSet intervals;
+
+    @BeforeEach
+    void setUp() {
+        intervals = new BookingIntervalSet();
+        intervals.add(1L, day(1), day(3));
+        intervals.add(2L, day(10), day(12));
+    }
+
+    @Test
+    void overlaps_ShouldIncludeBoundaries() {
+        assertTrue(intervals.overlaps(day(3), day(5)));
+        assertTrue(intervals.overlaps(day(0), day(1)));
+        assertTrue(intervals.overlaps(day(2), day(2)));
+        assertTrue(intervals.overlaps(day(0), day(20)));
+        assertFalse(intervals.overlaps(day(4), day(9)));
+        assertFalse(intervals.overlaps(day(13), day(14)));
+    }
+
+    @Test
+    void remove_ShouldSplitMergedBlock() {
+        intervals.add(3L, day(2), day(11));
+        assertTrue(intervals.overlaps(day(5), day(6)));
+
+        intervals.remove(3L);
+        assertFalse(intervals.overlaps(day(5), day(6)));
+        assertTrue(intervals.overlaps(day(11), day(11)));
+        assertEquals(2, intervals.size());
+    }
+
+    @Test
+    void add_ShouldReplaceInterval_WhenBookingIsAddedAgain() {
+        intervals.add(1L, day(5), day(6));
+
+        assertFalse(intervals.overlaps(day(1), day(3)));
+        assertTrue(intervals.overlaps(day(6), day(7)));
+        assertEquals(2, intervals.size());
+    }
+
+    @Test
+    void overlaps_ShouldMatchLinearScan_OnRandomIntervals() {
+        Random random = new Random(42);
+        BookingIntervalSet set = new BookingIntervalSet();
+        Map<Long, LocalDateTime[]> expected = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            long bookingId = random.nextInt(200);
+            if (random.nextInt(4) == 0) {
+                set.remove(bookingId);
+                expected.remove(bookingId);
+            } else {
+                int start = random.nextInt(1000);
+                LocalDateTime[] interval = {day(start), day(start + random.nextInt(20))};
+                set.add(bookingId, interval[0], interval[1]);
+                expected.put(bookingId, interval);
+            }
+
+            int start = random.nextInt(1000);
+            LocalDateTime queryStart = day(start);
+            LocalDateTime queryEnd = day(start + random.nextInt(10));
+            boolean linear = expected.values().stream()
+                    .anyMatch(interval -> !interval[0].isAfter(queryEnd) && !interval[1].isBefore(queryStart));
+            assertEquals(linear, set.overlaps(queryStart, queryEnd));
+        }
+        assertEquals(expected.size(), set.size());
+    }
+
+    private static LocalDateTime day(int day) {
+        return BASE.plusDays(day);
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.booking.availability.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingTimes;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IntervalIndexBookingAvailabilityTest {
+    private static final long ITEM_ID = 7L;
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private IntervalIndexBookingAvailability availability;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        availability = new IntervalIndexBookingAvailability(bookingRepository, 100, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void hasApprovedOverlap_ShouldLoadItemOnce() {
+        when(bookingRepository.findApprovedTimes(ITEM_ID)).thenReturn(List.of(approvedTimes(1L, 1, 3)));
+
+        assertTrue(availability.hasApprovedOverlap(ITEM_ID, day(2), day(4)));
+        assertFalse(availability.hasApprovedOverlap(ITEM_ID, day(5), day(6)));
+
+        verify(bookingRepository, times(1)).findApprovedTimes(ITEM_ID);
+    }
+
+    @Test
+    void hasApprovedOverlap_ShouldNotCacheSnapshotWhenApprovalCommittedDuringLoad() {
+        Booking approved = booking(2L, 5, 6);
+        // Подтверждение фиксируется, пока первый запрос ещё читает старое состояние
+        when(bookingRepository.findApprovedTimes(ITEM_ID))
+                .thenAnswer(invocation -> {
+                    availability.approved(approved);
+                    return List.of(approvedTimes(1L, 1, 3));
+                })
+                .thenReturn(List.of(approvedTimes(1L, 1, 3), approvedTimes(2L, 5, 6)));
+
+        assertTrue(availability.hasApprovedOverlap(ITEM_ID, day(5), day(6)));
+        assertTrue(availability.hasApprovedOverlap(ITEM_ID, day(5), day(6)));
+
+        verify(bookingRepository, times(2)).findApprovedTimes(ITEM_ID);
+    }
+
+    @Test
+    void released_ShouldUpdateLoadedItem() {
+        when(bookingRepository.findApprovedTimes(ITEM_ID)).thenReturn(List.of(approvedTimes(1L, 1, 3)));
+        assertTrue(availability.hasApprovedOverlap(ITEM_ID, day(2), day(2)));
+
+        availability.released(booking(1L, 1, 3));
+
+        assertFalse(availability.hasApprovedOverlap(ITEM_ID, day(2), day(2)));
+        verify(bookingRepository, times(1)).findApprovedTimes(ITEM_ID);
+    }
+
+    private static Booking booking(long id, int startDay, int endDay) {
+        Item item = Item.builder().id(ITEM_ID).build();
+        return new Booking(id, day(startDay), day(endDay), item, null, Status.APPROVED);
+    }
+
+    private static BookingTimes approvedTimes(long id, int startDay, int endDay) {
+        return new ApprovedTimes(id, day(startDay), day(endDay));
+    }
+
+    private static LocalDateTime day(int day) {
+        return BASE.plusDays(day);
+    }
+
+    private record ApprovedTimes(Long getId, LocalDateTime getStartDate, LocalDateTime getEndDate)
+            implements BookingTimes {
+        @Override
+        public Long getItemId() {
+            return ITEM_ID;
+        }
+
+        @Override
+        public Status getStatus() {
+            return Status.APPROVED;
+        }
+    }
+}
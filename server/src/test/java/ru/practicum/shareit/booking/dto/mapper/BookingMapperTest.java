@@ -0,0 +1,141 @@
+package ru.practicum.shareit.booking.dto.mapper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDetails;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.model.LastBooking;
+import ru.practicum.shareit.booking.model.NextBooking;
+import ru.practicum.shareit.booking.pointer.ItemBookingPointers;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BookingMapperTest {
+
+    @Mock
+    private ItemBookingPointers itemBookingPointers;
+
+    private BookingMapper bookingMapper;
+    private User owner;
+    private User booker;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        bookingMapper = new BookingMapper(itemBookingPointers);
+        owner = new User(1L, "owner", "owner@mail.ru");
+        booker = new User(2L, "booker", "booker@mail.ru");
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    void toResponseDtos_ShouldLookUpPointersOnceForAllItems() {
+        Item drill = item(10L);
+        Item saw = item(20L);
+        List<Booking> bookings = List.of(booking(100L, drill), booking(101L, saw), booking(102L, drill));
+        when(itemBookingPointers.find(Set.of(10L, 20L))).thenReturn(Map.of(
+                10L, new BookingDetails(new LastBooking(90L, 3L), new NextBooking(102L, 2L)),
+                20L, new BookingDetails(null, null)));
+
+        List<BookingOutDto> result = bookingMapper.toResponseDtos(bookings);
+
+        verify(itemBookingPointers, times(1)).find(Set.of(10L, 20L));
+        verifyNoMoreInteractions(itemBookingPointers);
+        assertEquals(List.of(100L, 101L, 102L), result.stream().map(BookingOutDto::getId).toList());
+        assertEquals(90L, result.get(0).getItem().getLastBooking().getId());
+        assertEquals(102L, result.get(0).getItem().getNextBooking().getId());
+        assertNull(result.get(1).getItem().getLastBooking());
+        assertNull(result.get(1).getItem().getNextBooking());
+        assertEquals(result.get(0).getItem(), result.get(2).getItem());
+        assertEquals(booker.getEmail(), result.get(1).getBooker().getEmail());
+    }
+
+    @Test
+    void toResponseDtos_ShouldNotLookUpPointers_WhenListIsEmpty() {
+        assertTrue(bookingMapper.toResponseDtos(List.of()).isEmpty());
+
+        verifyNoInteractions(itemBookingPointers);
+    }
+
+    @Test
+    void toViewDtos_ShouldLookUpOnlyItemsWithMissingOrExpiredPointers() {
+        BookingView fresh = view(100L, 10L, 10L, 90L, now.plusHours(1));
+        BookingView missing = view(101L, 20L, null, null, null);
+        BookingView expired = view(102L, 30L, 30L, 80L, now.minusMinutes(1));
+        BookingView sameItemFresh = view(103L, 10L, 10L, 90L, now.plusHours(1));
+        when(itemBookingPointers.find(Set.of(20L, 30L))).thenReturn(Map.of(
+                20L, new BookingDetails(new LastBooking(70L, 2L), null),
+                30L, new BookingDetails(null, new NextBooking(60L, 2L))));
+
+        List<BookingOutDto> result = bookingMapper.toViewDtos(List.of(fresh, missing, expired, sameItemFresh));
+
+        verify(itemBookingPointers, times(1)).find(Set.of(20L, 30L));
+        verifyNoMoreInteractions(itemBookingPointers);
+        assertEquals(90L, result.get(0).getItem().getLastBooking().getId());
+        assertEquals(70L, result.get(1).getItem().getLastBooking().getId());
+        assertNull(result.get(2).getItem().getLastBooking());
+        assertEquals(60L, result.get(2).getItem().getNextBooking().getId());
+        assertEquals(90L, result.get(3).getItem().getLastBooking().getId());
+    }
+
+    @Test
+    void toResponseDtos_ShouldNotReportWaitingBookingAsNextBooking() {
+        Item drill = item(10L);
+        Booking waiting = booking(100L, drill);
+        // Указатели хранят только подтверждённые бронирования, у вещи с одним ожидающим их нет
+        when(itemBookingPointers.find(Set.of(10L))).thenReturn(Map.of(10L, new BookingDetails(null, null)));
+
+        BookingOutDto result = bookingMapper.toResponseDtos(List.of(waiting)).get(0);
+
+        assertEquals(Status.WAITING, result.getStatus());
+        assertNull(result.getItem().getNextBooking());
+        assertNull(result.getItem().getLastBooking());
+    }
+
+    @Test
+    void toViewDtos_ShouldNotReportWaitingBookingAsNextBooking_WhenPointerIsStored() {
+        BookingView waiting = view(100L, 10L, 10L, null, null);
+
+        BookingOutDto result = bookingMapper.toViewDtos(List.of(waiting)).get(0);
+
+        assertEquals(Status.WAITING, result.getStatus());
+        assertNull(result.getItem().getNextBooking());
+        verify(itemBookingPointers).find(Set.of());
+    }
+
+    @Test
+    void toViewDtos_ShouldLookUpNothing_WhenAllPointersAreFresh() {
+        bookingMapper.toViewDtos(List.of(view(100L, 10L, 10L, 90L, null)));
+
+        verify(itemBookingPointers).find(Set.of());
+    }
+
+    private Item item(Long id) {
+        return Item.builder().id(id).name("Дрель " + id).description("Ударная").isAvailable(true).owner(owner).build();
+    }
+
+    private Booking booking(Long id, Item item) {
+        return new Booking(id, now.plusDays(1), now.plusDays(2), item, booker, Status.WAITING);
+    }
+
+    private BookingView view(Long id, Long itemId, Long pointerItemId, Long lastBookingId, LocalDateTime validUntil) {
+        return new BookingView(id, now.plusDays(1), now.plusDays(2), Status.WAITING,
+                itemId, "Дрель", "Ударная", true, owner.getId(), null,
+                booker.getId(), booker.getName(), booker.getEmail(),
+                pointerItemId, lastBookingId, lastBookingId != null ? booker.getId() : null, null, null, validUntil);
+    }
+}
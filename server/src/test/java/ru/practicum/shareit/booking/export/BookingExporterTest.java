@@ -0,0 +1,109 @@
+package ru.practicum.shareit.booking.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingPointer;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingPointerRepository;
+import ru.practicum.shareit.error.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.persistence.BatchWriter;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class BookingExporterTest {
+    private static final int BOOKINGS = 1_200;
+
+    @Autowired
+    private BookingExporter bookingExporter;
+    @Autowired
+    private BatchWriter batchWriter;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemBookingPointerRepository pointerRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportBookings_ShouldWriteWholeHistoryAsNdjson() throws IOException {
+        String suffix = String.valueOf(System.nanoTime());
+        User owner = userRepository.save(User.builder().name("owner").email("owner" + suffix + "@export").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker" + suffix + "@export").build());
+        Item item = itemRepository.save(Item.builder().name("Дрель").description("Ударная")
+                .isAvailable(true).owner(owner).build());
+        LocalDateTime base = LocalDateTime.of(2020, 1, 1, 0, 0);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookings.add(new Booking(null, base.plusHours(2L * i), base.plusHours(2L * i + 1), item, booker,
+                    Status.APPROVED));
+        }
+        batchWriter.persistAll(bookings);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bookingExporter.exportBookings(booker.getId()).writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(BOOKINGS, lines.length);
+        assertTrue(lines[1].startsWith("{"));
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(bookings.get(BOOKINGS - 1).getId(), first.get("id").asLong());
+        assertEquals("APPROVED", first.get("status").asText());
+        assertEquals(item.getId(), first.get("item").get("id").asLong());
+        assertEquals(booker.getEmail(), first.get("booker").get("email").asText());
+        assertEquals(bookings.get(0).getId(), objectMapper.readTree(lines[BOOKINGS - 1]).get("id").asLong());
+    }
+
+    @Test
+    void exportBookings_ShouldRefreshStalePointersBeforeStreaming() throws IOException {
+        String suffix = String.valueOf(System.nanoTime());
+        User owner = userRepository.save(User.builder().name("owner").email("owner" + suffix + "@export").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker" + suffix + "@export").build());
+        Item item = itemRepository.save(Item.builder().name("Пила").description("Ручная")
+                .isAvailable(true).owner(owner).build());
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking past = bookingRepository.save(new Booking(null, now.minusDays(3), now.minusDays(2), item, booker,
+                Status.APPROVED));
+        Booking next = bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2), item, booker,
+                Status.APPROVED));
+        // Запись устарела: следующее бронирование в ней уже началось
+        pointerRepository.save(new ItemBookingPointer(item.getId(), null, null, past.getId(), booker.getId(),
+                now.minusDays(3)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bookingExporter.exportBookings(booker.getId()).writeTo(out);
+
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            JsonNode exportedItem = objectMapper.readTree(line).get("item");
+            assertEquals(past.getId(), exportedItem.get("lastBooking").get("id").asLong());
+            assertEquals(next.getId(), exportedItem.get("nextBooking").get("id").asLong());
+        }
+        assertEquals(next.getStartDate(), pointerRepository.findById(item.getId()).orElseThrow().getValidUntil());
+    }
+
+    @Test
+    void exportBookings_ShouldRejectUnknownUserBeforeStreaming() {
+        assertThrows(NotFoundException.class, () -> bookingExporter.exportBookings(-1L));
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.availability.ItemBookingLocks;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.pointer.ItemBookingPointers;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
+import ru.practicum.shareit.item.model.Item;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BookingLifecycleReloadTest {
+    private static final long ITEM_ID = 11L;
+
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private ItemBookingPointers itemBookingPointers;
+    @Mock
+    private ItemBookingLocks itemBookingLocks;
+    @Mock
+    private ItemDetailsCache itemDetailsCache;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BookingLifecycleScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // Аренда всегда достаётся этому экземпляру
+        when(jdbcTemplate.queryForObject(anyString(), eq(Timestamp.class)))
+                .thenAnswer(invocation -> Timestamp.valueOf(LocalDateTime.now()));
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+
+        BookingLifecycleProperties properties = new BookingLifecycleProperties();
+        properties.setEnabled(false);
+        properties.setReloadInterval(Duration.ZERO);
+        scheduler = new BookingLifecycleScheduler(properties, bookingRepository, itemBookingPointers,
+                itemBookingLocks, itemDetailsCache, jdbcTemplate, transactionManager);
+    }
+
+    @Test
+    void tick_ShouldKeepApprovalCommittedDuringReload() throws InterruptedException {
+        Item item = Item.builder().id(ITEM_ID).build();
+        LocalDateTime start = LocalDateTime.now().plusNanos(300_000_000);
+        Booking approved = new Booking(21L, start, start.plusHours(1), item, null, Status.APPROVED);
+        // Снимок из базы прочитан до фиксации подтверждения, а событие добавляется в очередь, пока идёт загрузка
+        when(bookingRepository.findApprovedChangingBetween(any(), any()))
+                .thenReturn(List.of())
+                .thenAnswer(invocation -> {
+                    scheduler.scheduled(approved);
+                    return List.of();
+                })
+                .thenReturn(List.of());
+
+        scheduler.tick();
+        scheduler.tick();
+        verify(itemBookingPointers, never()).refresh(anyCollection());
+
+        Thread.sleep(400);
+        scheduler.tick();
+
+        verify(itemBookingPointers).refresh(Set.of(ITEM_ID));
+        verify(itemDetailsCache).evictBookings(ITEM_ID);
+    }
+}
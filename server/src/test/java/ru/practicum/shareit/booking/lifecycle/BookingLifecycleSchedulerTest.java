@@ -0,0 +1,117 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingInDto;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingPointerRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.error.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "shareit.booking.lifecycle.enabled=true",
+        "shareit.booking.lifecycle.tick-interval=100ms",
+        "shareit.booking.lifecycle.waiting-grace-period=0s"
+})
+class BookingLifecycleSchedulerTest {
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemBookingPointerRepository pointerRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = String.valueOf(System.nanoTime());
+        owner = userRepository.save(User.builder().name("owner").email("owner" + suffix + "@lifecycle").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker" + suffix + "@lifecycle").build());
+        item = itemRepository.save(Item.builder().name("Палатка").description("Четырёхместная")
+                .isAvailable(true).owner(owner).build());
+    }
+
+    @Test
+    void waitingBooking_ShouldBeCanceled_WhenNotApprovedBeforeStart() throws InterruptedException {
+        BookingOutDto booking = book(LocalDateTime.now().plusSeconds(1), LocalDateTime.now().plusHours(1));
+
+        awaitTrue(() -> bookingRepository.findById(booking.getId()).orElseThrow().getStatus() == Status.CANCELED);
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.updateBookingStatus(booking.getId(), owner.getId(), true));
+    }
+
+    @Test
+    void approvedBooking_ShouldMoveFromNextToLast_WhenItEnds() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.save(new Booking(null, now.minusDays(2), now.minusDays(1), item, booker, Status.APPROVED));
+        BookingOutDto soon = book(now.plusSeconds(1), now.plusSeconds(2));
+        bookingService.updateBookingStatus(soon.getId(), owner.getId(), true);
+        assertEquals(soon.getId(), pointerRepository.findById(item.getId()).orElseThrow().getNextBookingId());
+
+        awaitTrue(() -> Objects.equals(soon.getId(),
+                pointerRepository.findById(item.getId()).orElseThrow().getLastBookingId()));
+
+        assertNull(pointerRepository.findById(item.getId()).orElseThrow().getNextBookingId());
+    }
+
+    @Test
+    void lease_ShouldBeHeldByOneOwnerUntilReleasedOrExpired() {
+        String name = "test-lease-" + System.nanoTime();
+        SchedulerLease first = new SchedulerLease(jdbcTemplate, name, "first", Duration.ofMinutes(1));
+        SchedulerLease second = new SchedulerLease(jdbcTemplate, name, "second", Duration.ofMillis(-1));
+
+        assertTrue(first.tryAcquire());
+        assertTrue(first.tryAcquire());
+        assertFalse(second.tryAcquire());
+
+        first.release();
+        assertTrue(second.tryAcquire());
+        // Аренда second создана уже истёкшей
+        assertTrue(first.tryAcquire());
+    }
+
+    private BookingOutDto book(LocalDateTime start, LocalDateTime end) {
+        return bookingService.addBooking(BookingInDto.builder()
+                .itemId(item.getId())
+                .bookerId(booker.getId())
+                .start(start)
+                .end(end)
+                .build());
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        LocalDateTime deadline = LocalDateTime.now().plusSeconds(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(LocalDateTime.now().isBefore(deadline), "Condition not reached in time");
+            Thread.sleep(100);
+        }
+    }
+}
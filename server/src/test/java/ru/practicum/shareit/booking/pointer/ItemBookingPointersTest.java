@@ -0,0 +1,155 @@
+package ru.practicum.shareit.booking.pointer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDetails;
+import ru.practicum.shareit.booking.model.ItemBookingPointer;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingPointerRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ItemBookingPointersTest {
+
+    @Autowired
+    private ItemBookingPointers itemBookingPointers;
+    @Autowired
+    private ItemBookingPointerRepository pointerRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private DataSource dataSource;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = String.valueOf(System.nanoTime());
+        owner = userRepository.save(User.builder().name("owner").email("owner" + suffix + "@pointers").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker" + suffix + "@pointers").build());
+        item = itemRepository.save(Item.builder().name("Дрель").description("Ударная")
+                .isAvailable(true).owner(owner).build());
+    }
+
+    @Test
+    void find_ShouldReturnLastFinishedAndNextApprovedBookings() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking past = book(now.minusDays(3), now.minusDays(2), Status.APPROVED);
+        book(now.minusDays(1), now.minusHours(1), Status.REJECTED);
+        book(now.plusHours(1), now.plusHours(2), Status.WAITING);
+        Booking next = book(now.plusDays(1), now.plusDays(2), Status.APPROVED);
+        book(now.plusDays(3), now.plusDays(4), Status.APPROVED);
+
+        BookingDetails details = itemBookingPointers.find(item.getId());
+
+        assertEquals(past.getId(), details.lastBooking().getId());
+        assertEquals(next.getId(), details.nextBooking().getId());
+        assertEquals(booker.getId(), details.nextBooking().getBookerId());
+        // Чтение рассчитывает отсутствующую запись, но не сохраняет её
+        assertFalse(pointerRepository.existsById(item.getId()));
+
+        itemBookingPointers.refresh(item.getId());
+        ItemBookingPointer pointer = pointerRepository.findById(item.getId()).orElseThrow();
+        assertEquals(next.getStartDate(), pointer.getValidUntil());
+    }
+
+    @Test
+    void refresh_ShouldFollowStatusChanges() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking next = book(now.plusDays(1), now.plusDays(2), Status.WAITING);
+        book(now.minusDays(3), now.minusDays(2), Status.APPROVED);
+        assertNull(itemBookingPointers.find(item.getId()).nextBooking());
+
+        next.setStatus(Status.APPROVED);
+        bookingRepository.save(next);
+        itemBookingPointers.refresh(item.getId());
+
+        assertEquals(next.getId(), itemBookingPointers.find(item.getId()).nextBooking().getId());
+    }
+
+    @Test
+    void sweep_ShouldMoveStartedBookingFromNextToLast() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        book(now.minusDays(3), now.minusDays(2), Status.APPROVED);
+        Booking soon = book(now.plusSeconds(1), now.plusSeconds(2), Status.APPROVED);
+        itemBookingPointers.refresh(item.getId());
+        assertEquals(soon.getId(), itemBookingPointers.find(item.getId()).nextBooking().getId());
+
+        Thread.sleep(2500);
+
+        // До планировщика устаревшая запись рассчитывается при чтении заново, но остаётся в базе как была
+        assertEquals(soon.getId(), itemBookingPointers.find(item.getId()).lastBooking().getId());
+        assertEquals(soon.getId(), pointerRepository.findById(item.getId()).orElseThrow().getNextBookingId());
+
+        assertTrue(itemBookingPointers.sweep() >= 1);
+        ItemBookingPointer pointer = pointerRepository.findById(item.getId()).orElseThrow();
+        assertEquals(soon.getId(), pointer.getLastBookingId());
+        assertNull(pointer.getNextBookingId());
+        assertNull(pointer.getValidUntil());
+    }
+
+    @Test
+    void find_ShouldReturnEmptyDetails_WhenItemHasNoBookings() {
+        BookingDetails details = itemBookingPointers.find(List.of(item.getId())).get(item.getId());
+
+        assertNull(details.lastBooking());
+        assertNull(details.nextBooking());
+    }
+
+    @Test
+    void create_ShouldInsertEmptyPointers() {
+        Item other = itemRepository.save(Item.builder().name("Пила").description("Ручная")
+                .isAvailable(true).owner(owner).build());
+
+        itemBookingPointers.create(List.of(item.getId(), other.getId()));
+
+        ItemBookingPointer pointer = pointerRepository.findById(other.getId()).orElseThrow();
+        assertNull(pointer.getLastBookingId());
+        assertNull(pointer.getNextBookingId());
+        assertNull(pointer.getValidUntil());
+        assertTrue(pointerRepository.existsById(item.getId()));
+    }
+
+    @Test
+    void backfillMigration_ShouldWriteSamePointersAsRefresh() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        book(now.minusDays(3), now.minusDays(2), Status.APPROVED);
+        book(now.minusHours(1), now.plusHours(1), Status.APPROVED);
+        book(now.plusHours(2), now.plusHours(3), Status.WAITING);
+        book(now.plusDays(1), now.plusDays(2), Status.APPROVED);
+        itemBookingPointers.refresh(item.getId());
+        ItemBookingPointer refreshed = pointerRepository.findById(item.getId()).orElseThrow();
+        pointerRepository.deleteById(item.getId());
+
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V9__backfill_item_booking_pointers.sql"))
+                .execute(dataSource);
+
+        assertEquals(refreshed, pointerRepository.findById(item.getId()).orElseThrow());
+    }
+
+    private Booking book(LocalDateTime start, LocalDateTime end, Status status) {
+        return bookingRepository.save(new Booking(null, start, end, item, booker, status));
+    }
+}
@@ -0,0 +1,210 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingSummary;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class BookingRepositoryTest {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private User booker;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = String.valueOf(System.nanoTime());
+        owner = userRepository.save(User.builder().name("owner").email("owner" + suffix + "@repository").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker" + suffix + "@repository").build());
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @Test
+    void findLastApprovedBookings_ShouldPickLatestFinishedApprovedBooking() {
+        Item item = item();
+        book(item, now.minusDays(5), now.minusDays(4), Status.APPROVED);
+        Booking last = book(item, now.minusDays(3), now.minusDays(2), Status.APPROVED);
+        book(item, now.minusDays(2), now.minusDays(1), Status.REJECTED);
+        book(item, now.minusDays(2), now.minusHours(1), Status.WAITING);
+        book(item, now.plusDays(1), now.plusDays(2), Status.APPROVED);
+
+        Map<Long, BookingSummary> result = byItemId(bookingRepository.findLastApprovedBookings(
+                List.of(item.getId()), now));
+
+        assertEquals(last.getId(), result.get(item.getId()).getId());
+        assertEquals(booker.getId(), result.get(item.getId()).getBookerId());
+    }
+
+    @Test
+    void findLastApprovedBookings_ShouldPreferHigherIdOnSameEndDate() {
+        Item item = item();
+        book(item, now.minusDays(4), now.minusDays(1), Status.APPROVED);
+        Booking later = book(item, now.minusDays(3), now.minusDays(1), Status.APPROVED);
+
+        Map<Long, BookingSummary> result = byItemId(bookingRepository.findLastApprovedBookings(
+                List.of(item.getId()), now));
+
+        assertEquals(later.getId(), result.get(item.getId()).getId());
+    }
+
+    @Test
+    void findLastApprovedBookings_ShouldTreatSingleApprovedBookingAsLast() {
+        Item single = item();
+        Booking future = book(single, now.plusDays(1), now.plusDays(2), Status.APPROVED);
+        book(single, now.minusDays(2), now.minusDays(1), Status.REJECTED);
+        Item twoFuture = item();
+        book(twoFuture, now.plusDays(1), now.plusDays(2), Status.APPROVED);
+        book(twoFuture, now.plusDays(3), now.plusDays(4), Status.APPROVED);
+        Item withoutApproved = item();
+        book(withoutApproved, now.minusDays(2), now.minusDays(1), Status.WAITING);
+
+        Map<Long, BookingSummary> result = byItemId(bookingRepository.findLastApprovedBookings(
+                List.of(single.getId(), twoFuture.getId(), withoutApproved.getId()), now));
+
+        assertEquals(future.getId(), result.get(single.getId()).getId());
+        assertFalse(result.containsKey(twoFuture.getId()));
+        assertFalse(result.containsKey(withoutApproved.getId()));
+    }
+
+    @Test
+    void findNextApprovedBookings_ShouldPickEarliestFutureApprovedBooking() {
+        Item item = item();
+        book(item, now.minusDays(2), now.minusDays(1), Status.APPROVED);
+        book(item, now.minusHours(1), now.plusHours(1), Status.APPROVED);
+        book(item, now.plusHours(1), now.plusHours(2), Status.WAITING);
+        Booking next = book(item, now.plusDays(1), now.plusDays(2), Status.APPROVED);
+        book(item, now.plusDays(3), now.plusDays(4), Status.APPROVED);
+        Item pastOnly = item();
+        book(pastOnly, now.minusDays(2), now.minusDays(1), Status.APPROVED);
+
+        Map<Long, BookingSummary> result = byItemId(bookingRepository.findNextApprovedBookings(
+                List.of(item.getId(), pastOnly.getId()), now));
+
+        assertEquals(next.getId(), result.get(item.getId()).getId());
+        assertFalse(result.containsKey(pastOnly.getId()));
+    }
+
+    @Test
+    void findNextApprovedBookings_ShouldPreferLowerIdOnSameStartDate() {
+        Item item = item();
+        Booking first = book(item, now.plusDays(1), now.plusDays(3), Status.APPROVED);
+        book(item, now.plusDays(1), now.plusDays(2), Status.APPROVED);
+
+        Map<Long, BookingSummary> result = byItemId(bookingRepository.findNextApprovedBookings(
+                List.of(item.getId()), now));
+
+        assertEquals(first.getId(), result.get(item.getId()).getId());
+    }
+
+    @Test
+    void findLastAndNextApprovedBookings_ShouldResolveEachItemSeparately() {
+        Item first = item();
+        Booking firstLast = book(first, now.minusDays(3), now.minusDays(2), Status.APPROVED);
+        Booking firstNext = book(first, now.plusDays(1), now.plusDays(2), Status.APPROVED);
+        Item second = item();
+        Booking secondLast = book(second, now.minusDays(6), now.minusDays(5), Status.APPROVED);
+        Booking secondNext = book(second, now.plusDays(5), now.plusDays(6), Status.APPROVED);
+        List<Long> itemIds = List.of(first.getId(), second.getId());
+
+        Map<Long, BookingSummary> last = byItemId(bookingRepository.findLastApprovedBookings(itemIds, now));
+        Map<Long, BookingSummary> next = byItemId(bookingRepository.findNextApprovedBookings(itemIds, now));
+
+        assertEquals(firstLast.getId(), last.get(first.getId()).getId());
+        assertEquals(secondLast.getId(), last.get(second.getId()).getId());
+        assertEquals(firstNext.getId(), next.get(first.getId()).getId());
+        assertEquals(secondNext.getId(), next.get(second.getId()).getId());
+    }
+
+    @Test
+    void findOwnerBookings_ShouldSelectOwnerBookingsPerState() {
+        Item first = item();
+        Item second = item();
+        User stranger = userRepository.save(User.builder().name("stranger")
+                .email("stranger" + System.nanoTime() + "@repository").build());
+        Item foreign = itemRepository.save(Item.builder().name("Пила").description("Чужая")
+                .isAvailable(true).owner(stranger).build());
+        Booking past = book(first, now.minusDays(3), now.minusDays(2), Status.APPROVED);
+        Booking current = book(second, now.minusDays(1), now.plusDays(1), Status.APPROVED);
+        Booking future = book(first, now.plusDays(2), now.plusDays(3), Status.WAITING);
+        Booking rejected = book(second, now.plusDays(4), now.plusDays(5), Status.REJECTED);
+        book(foreign, now.minusDays(3), now.minusDays(2), Status.APPROVED);
+        book(foreign, now.minusDays(1), now.plusDays(1), Status.WAITING);
+        book(foreign, now.plusDays(2), now.plusDays(3), Status.REJECTED);
+        Long ownerId = owner.getId();
+
+        assertEquals(List.of(rejected.getId(), future.getId(), current.getId(), past.getId()),
+                ids(bookingRepository.findOwnerAll(ownerId, page())));
+        assertEquals(List.of(current.getId()), ids(bookingRepository.findOwnerCurrent(ownerId, now, page())));
+        assertEquals(List.of(past.getId()), ids(bookingRepository.findOwnerPast(ownerId, now, page())));
+        assertEquals(List.of(rejected.getId(), future.getId()),
+                ids(bookingRepository.findOwnerFuture(ownerId, now, page())));
+        assertEquals(List.of(future.getId()),
+                ids(bookingRepository.findOwnerByStatus(ownerId, Status.WAITING, page())));
+        assertEquals(List.of(rejected.getId()),
+                ids(bookingRepository.findOwnerByStatus(ownerId, Status.REJECTED, page())));
+    }
+
+    @Test
+    void findOwnerAll_ShouldReturnItemAndBookerOfEachBooking() {
+        Item item = item();
+        Booking booking = book(item, now.plusDays(1), now.plusDays(2), Status.WAITING);
+
+        BookingView view = bookingRepository.findOwnerAll(owner.getId(), page()).getContent().get(0);
+
+        assertEquals(booking.getId(), view.id());
+        assertEquals(item.getId(), view.itemId());
+        assertEquals(owner.getId(), view.itemOwnerId());
+        assertEquals(booker.getId(), view.bookerId());
+        assertEquals(booker.getEmail(), view.bookerEmail());
+        assertTrue(bookingRepository.findOwnerAll(booker.getId(), page()).isEmpty());
+    }
+
+    private Item item() {
+        return itemRepository.save(Item.builder().name("Дрель").description("Ударная")
+                .isAvailable(true).owner(owner).build());
+    }
+
+    private Booking book(Item item, LocalDateTime start, LocalDateTime end, Status status) {
+        return bookingRepository.save(new Booking(null, start, end, item, booker, status));
+    }
+
+    private static Pageable page() {
+        return PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "startDate"));
+    }
+
+    private static List<Long> ids(Slice<BookingView> bookings) {
+        return bookings.getContent().stream().map(BookingView::id).toList();
+    }
+
+    private static Map<Long, BookingSummary> byItemId(List<BookingSummary> summaries) {
+        return summaries.stream().collect(Collectors.toMap(BookingSummary::getItemId, summary -> summary));
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingInDto;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.error.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@SpringBootTest
+class BookingAdmissionStressTest {
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS_PER_THREAD = 60;
+    private static final int ITEMS = 4;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void concurrentAdmission_ShouldNeverApproveOverlappingBookings() throws Exception {
+        String suffix = String.valueOf(System.nanoTime());
+        User owner = userRepository.save(User.builder().name("owner").email("owner" + suffix + "@stress").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker" + suffix + "@stress").build());
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            itemIds.add(itemRepository.save(Item.builder().name("Вещь " + i).description("Нагрузочный тест")
+                    .isAvailable(true).owner(owner).build()).getId());
+        }
+
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    LocalDateTime from = base.plusHours(random.nextInt(240));
+                    BookingInDto request = BookingInDto.builder()
+                            .itemId(itemIds.get(random.nextInt(ITEMS)))
+                            .bookerId(booker.getId())
+                            .start(from)
+                            .end(from.plusHours(1 + random.nextInt(12)))
+                            .build();
+                    try {
+                        BookingOutDto booking = bookingService.addBooking(request);
+                        bookingService.updateBookingStatus(booking.getId(), owner.getId(), true);
+                        approved.incrementAndGet();
+                    } catch (ValidationException e) {
+                        refused.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        long elapsedMillis = Math.max(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), 1);
+        executor.shutdown();
+
+        int attempts = THREADS * ATTEMPTS_PER_THREAD;
+        log.info("{} admissions in {} ms ({} per second): {} approved, {} refused",
+                attempts, elapsedMillis, attempts * 1000L / elapsedMillis, approved.get(), refused.get());
+        assertEquals(attempts, approved.get() + refused.get());
+        assertTrue(approved.get() > 0);
+
+        for (Long itemId : itemIds) {
+            List<Booking> bookings = bookingRepository.findByItem_IdAndStatusOrderByStartDateAsc(itemId, Status.APPROVED);
+            for (int i = 1; i < bookings.size(); i++) {
+                assertTrue(bookings.get(i).getStartDate().isAfter(bookings.get(i - 1).getEndDate()),
+                        "Approved bookings overlap for item " + itemId);
+            }
+        }
+    }
+}
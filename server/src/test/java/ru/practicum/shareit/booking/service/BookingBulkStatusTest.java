@@ -0,0 +1,106 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.error.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class BookingBulkStatusTest {
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private Item otherItem;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = String.valueOf(System.nanoTime());
+        owner = userRepository.save(User.builder().name("owner").email("owner" + suffix + "@bulk").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker" + suffix + "@bulk").build());
+        User stranger = userRepository.save(User.builder().name("stranger").email("stranger" + suffix + "@bulk").build());
+        item = itemRepository.save(Item.builder().name("Дрель").description("Ударная")
+                .isAvailable(true).owner(owner).build());
+        otherItem = itemRepository.save(Item.builder().name("Пила").description("Чужая")
+                .isAvailable(true).owner(stranger).build());
+    }
+
+    @Test
+    void updateBookingStatuses_ShouldReturnOutcomePerIdInRequestOrder() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking first = book(item, now.plusDays(1), now.plusDays(3));
+        Booking overlapping = book(item, now.plusDays(2), now.plusDays(4));
+        Booking later = book(item, now.plusDays(5), now.plusDays(6));
+        Booking foreign = book(otherItem, now.plusDays(1), now.plusDays(2));
+        long missingId = later.getId() + 1_000_000;
+
+        List<BookingStatusResultDto> results = bookingService.updateBookingStatuses(owner.getId(),
+                List.of(later.getId(), missingId, first.getId(), foreign.getId(), overlapping.getId(), first.getId()),
+                true);
+
+        assertEquals(List.of(later.getId(), missingId, first.getId(), foreign.getId(), overlapping.getId()),
+                results.stream().map(BookingStatusResultDto::getBookingId).toList());
+        assertEquals(List.of(200, 404, 200, 403, 400),
+                results.stream().map(BookingStatusResultDto::getCode).toList());
+        assertEquals(Status.APPROVED, results.get(0).getBooking().getStatus());
+        assertNull(results.get(4).getBooking());
+        assertNotNull(results.get(4).getError());
+
+        assertEquals(Status.APPROVED, bookingRepository.findById(first.getId()).orElseThrow().getStatus());
+        assertEquals(Status.APPROVED, bookingRepository.findById(later.getId()).orElseThrow().getStatus());
+        assertEquals(Status.WAITING, bookingRepository.findById(overlapping.getId()).orElseThrow().getStatus());
+        assertEquals(Status.WAITING, bookingRepository.findById(foreign.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void updateBookingStatuses_ShouldRejectApprovedAndReportAlreadyRejected() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking approved = book(item, now.plusDays(1), now.plusDays(2));
+        bookingService.updateBookingStatus(approved.getId(), owner.getId(), true);
+        Booking waiting = book(item, now.plusDays(1), now.plusDays(2));
+
+        List<BookingStatusResultDto> results = bookingService.updateBookingStatuses(owner.getId(),
+                List.of(approved.getId(), waiting.getId()), false);
+        assertEquals(List.of(200, 200), results.stream().map(BookingStatusResultDto::getCode).toList());
+        assertEquals(Status.REJECTED, bookingRepository.findById(approved.getId()).orElseThrow().getStatus());
+
+        results = bookingService.updateBookingStatuses(owner.getId(), List.of(waiting.getId()), false);
+        assertEquals(400, results.get(0).getCode());
+    }
+
+    @Test
+    void updateBookingStatuses_ShouldValidateBatchSize() {
+        assertThrows(ValidationException.class,
+                () -> bookingService.updateBookingStatuses(owner.getId(), List.of(), true));
+        assertThrows(ValidationException.class,
+                () -> bookingService.updateBookingStatuses(owner.getId(), Collections.nCopies(101, 1L), true));
+    }
+
+    private Booking book(Item bookedItem, LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.save(new Booking(null, start, end, bookedItem, booker, Status.WAITING));
+    }
+}
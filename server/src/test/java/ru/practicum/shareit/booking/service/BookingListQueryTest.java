@@ -0,0 +1,114 @@
+package ru.practicum.shareit.booking.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.pointer.ItemBookingPointers;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Списки бронирований читаются одним SQL-запросом, без догрузки вещей, владельцев и запросов.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn"
+})
+class BookingListQueryTest {
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemBookingPointers itemBookingPointers;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+    private Booking past;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String suffix = String.valueOf(System.nanoTime());
+        owner = userRepository.save(User.builder().name("owner").email("owner" + suffix + "@views").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker" + suffix + "@views").build());
+        ItemRequest request = itemRequestRepository.save(ItemRequest.builder().description("Нужна дрель")
+                .requestor(booker).created(LocalDateTime.now()).build());
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 3; i++) {
+            Item item = itemRepository.save(Item.builder().name("Дрель " + i).description("Ударная")
+                    .isAvailable(true).owner(owner).request(request).build());
+            past = bookingRepository.save(new Booking(null, now.minusDays(3), now.minusDays(2), item, booker,
+                    Status.APPROVED));
+            bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2), item, booker,
+                    Status.WAITING));
+            // Как после подтверждения бронирования
+            itemBookingPointers.refresh(item.getId());
+        }
+    }
+
+    @Test
+    void getOwnerBookings_ShouldUseSingleStatement() {
+        // Первый вызов заполняет кэш пользователей
+        bookingService.getOwnerBookings(owner.getId(), "ALL", 0, 10);
+
+        statistics.clear();
+        List<BookingOutDto> bookings = bookingService.getOwnerBookings(owner.getId(), "ALL", 0, 10);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(6, bookings.size());
+        BookingOutDto waiting = bookings.get(0);
+        assertEquals(Status.WAITING, waiting.getStatus());
+        assertEquals(owner.getId(), waiting.getItem().getOwnerId());
+        assertNotNull(waiting.getItem().getRequestId());
+        assertEquals(booker.getEmail(), waiting.getBooker().getEmail());
+        assertNotNull(waiting.getItem().getLastBooking());
+        // Следующим бронированием вещи считается только подтверждённое, ожидающее подтверждения не показывается
+        assertNull(waiting.getItem().getNextBooking());
+    }
+
+    @Test
+    void getBookings_ShouldUseSingleStatementPerState() {
+        bookingService.getBookings(booker.getId(), "ALL", 0, 10);
+
+        for (String state : List.of("ALL", "PAST", "FUTURE", "CURRENT", "WAITING", "REJECTED")) {
+            statistics.clear();
+            bookingService.getBookings(booker.getId(), state, 0, 10);
+            assertEquals(1, statistics.getPrepareStatementCount(), state);
+        }
+
+        List<BookingOutDto> pastBookings = bookingService.getBookings(booker.getId(), "PAST", 0, 10);
+        assertEquals(past.getId(), pastBookings.get(0).getId());
+        assertEquals(booker.getName(), pastBookings.get(0).getBooker().getName());
+        assertEquals(past.getId(), pastBookings.get(0).getItem().getLastBooking().getId());
+    }
+}
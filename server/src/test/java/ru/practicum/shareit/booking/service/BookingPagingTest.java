@@ -0,0 +1,88 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.error.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "shareit.booking.page.max-size=3")
+class BookingPagingTest {
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private User booker;
+    // Бронирования в порядке выдачи списков: от поздних к ранним
+    private List<Long> newestFirst;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = String.valueOf(System.nanoTime());
+        owner = userRepository.save(User.builder().name("owner").email("owner" + suffix + "@paging").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker" + suffix + "@paging").build());
+        Item item = itemRepository.save(Item.builder().name("Дрель").description("Ударная")
+                .isAvailable(true).owner(owner).build());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        newestFirst = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            newestFirst.add(0, bookingRepository.save(new Booking(null, start.plusDays(2L * i),
+                    start.plusDays(2L * i + 1), item, booker, Status.WAITING)).getId());
+        }
+    }
+
+    @Test
+    void getBookings_ShouldStartPageAtExactOffset() {
+        assertEquals(newestFirst.subList(1, 3), ids(bookingService.getBookings(booker.getId(), "ALL", 1, 2)));
+        assertEquals(newestFirst.subList(5, 7), ids(bookingService.getBookings(booker.getId(), "FUTURE", 5, 3)));
+        assertTrue(bookingService.getBookings(booker.getId(), "ALL", 7, 3).isEmpty());
+    }
+
+    @Test
+    void getBookings_ShouldCapPageSize() {
+        assertEquals(newestFirst.subList(0, 3),
+                ids(bookingService.getBookings(booker.getId(), "ALL", 0, Integer.MAX_VALUE)));
+        // Смещение не округляется до границы урезанной страницы
+        assertEquals(newestFirst.subList(4, 7), ids(bookingService.getBookings(booker.getId(), "WAITING", 4, 10)));
+    }
+
+    @Test
+    void getOwnerBookings_ShouldPageAndCapPageSize() {
+        assertEquals(newestFirst.subList(2, 5), ids(bookingService.getOwnerBookings(owner.getId(), "ALL", 2, 3)));
+        assertEquals(newestFirst.subList(0, 3),
+                ids(bookingService.getOwnerBookings(owner.getId(), "ALL", 0, Integer.MAX_VALUE)));
+    }
+
+    @Test
+    void getBookings_ShouldRejectInvalidPage() {
+        assertThrows(ValidationException.class, () -> bookingService.getBookings(booker.getId(), "ALL", -1, 2));
+        assertThrows(ValidationException.class, () -> bookingService.getBookings(booker.getId(), "ALL", 0, 0));
+        assertThrows(ValidationException.class, () -> bookingService.getOwnerBookings(owner.getId(), "ALL", 0, -5));
+    }
+
+    private static List<Long> ids(List<BookingOutDto> bookings) {
+        return bookings.stream().map(BookingOutDto::getId).toList();
+    }
+}
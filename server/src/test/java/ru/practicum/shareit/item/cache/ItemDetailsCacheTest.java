@@ -0,0 +1,65 @@
+package ru.practicum.shareit.item.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemDetailsCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ItemDetailsCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ItemDetailsCache(new ItemCacheProperties(), meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void getView_ShouldLoadOnce_AndReportHitsAndMisses() {
+        cache.getView(1L, this::load);
+        cache.getView(1L, this::load);
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "itemViews").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "itemViews").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void evictView_ShouldWaitForCommit_WhenTransactionIsActive() {
+        cache.getView(1L, this::load);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evictView(1L);
+        cache.getView(1L, this::load);
+        assertEquals(1, loads.get());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        cache.getView(1L, this::load);
+        assertEquals(2, loads.get());
+    }
+
+    private ItemView load(Long itemId) {
+        loads.incrementAndGet();
+        return new ItemView(itemId, "Дрель", "Простая дрель", true, 10L, List.of());
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.item.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentWithAuthor;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CommentRepositoryTest {
+
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = String.valueOf(System.nanoTime());
+        owner = userRepository.save(User.builder().name("owner").email("owner" + suffix + "@comments").build());
+        alice = userRepository.save(User.builder().name("Алиса").email("alice" + suffix + "@comments").build());
+        bob = userRepository.save(User.builder().name("Боб").email("bob" + suffix + "@comments").build());
+    }
+
+    @Test
+    void findWithAuthorByItemIds_ShouldGroupCommentsOfSeveralItems() {
+        Item drill = item("Дрель");
+        Item saw = item("Пила");
+        Item withoutComments = item("Молоток");
+        Item foreign = item("Отвёртка");
+        Comment first = comment(drill, alice, "Отличная дрель");
+        Comment second = comment(drill, bob, "Шумная");
+        Comment third = comment(saw, bob, "Острая");
+        comment(foreign, alice, "Не из запроса");
+
+        Map<Long, List<CommentWithAuthor>> byItemId = commentRepository.findWithAuthorByItemIds(
+                        List.of(drill.getId(), saw.getId(), withoutComments.getId())).stream()
+                .collect(Collectors.groupingBy(CommentWithAuthor::getItemId));
+
+        assertEquals(2, byItemId.size());
+        assertEquals(List.of(first.getId(), second.getId()),
+                byItemId.get(drill.getId()).stream().map(CommentWithAuthor::getId).toList());
+        assertEquals(List.of("Алиса", "Боб"),
+                byItemId.get(drill.getId()).stream().map(CommentWithAuthor::getAuthorName).toList());
+        CommentWithAuthor sawComment = byItemId.get(saw.getId()).get(0);
+        assertEquals(third.getId(), sawComment.getId());
+        assertEquals("Острая", sawComment.getText());
+        assertEquals(third.getCreated(), sawComment.getCreated());
+        assertFalse(byItemId.containsKey(withoutComments.getId()));
+        assertFalse(byItemId.containsKey(foreign.getId()));
+    }
+
+    @Test
+    void findWithAuthorByItemIds_ShouldReturnEmptyListForItemsWithoutComments() {
+        Item first = item("Дрель");
+        Item second = item("Пила");
+
+        assertTrue(commentRepository.findWithAuthorByItemIds(List.of(first.getId(), second.getId())).isEmpty());
+    }
+
+    private Item item(String name) {
+        return itemRepository.save(Item.builder().name(name).description("Инструмент")
+                .isAvailable(true).owner(owner).build());
+    }
+
+    private Comment comment(Item item, User author, String text) {
+        return commentRepository.save(Comment.builder().text(text).item(item).user(author)
+                .created(LocalDateTime.now().withNano(0)).build());
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.impl.DatabaseItemSearchEngine;
+import ru.practicum.shareit.item.search.impl.InvertedIndexItemSearchEngine;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Оба движка поиска должны отдавать одну и ту же страницу при одинаковых from и size.
+ */
+@SpringBootTest
+class ItemSearchEnginePagingTest {
+
+    @Autowired
+    private DatabaseItemSearchEngine databaseEngine;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private InvertedIndexItemSearchEngine indexEngine;
+    private String marker;
+    private List<Long> itemIds;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = String.valueOf(System.nanoTime());
+        marker = "метка" + suffix;
+        User owner = userRepository.save(User.builder().name("owner").email("owner" + suffix + "@engines").build());
+        itemIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            itemIds.add(itemRepository.save(Item.builder().name("Пила " + marker).description("Ручная " + i)
+                    .isAvailable(true).owner(owner).build()).getId());
+        }
+        itemRepository.save(Item.builder().name("Пила " + marker).description("Сломана")
+                .isAvailable(false).owner(owner).build());
+        indexEngine = new InvertedIndexItemSearchEngine(itemRepository);
+        indexEngine.rebuild();
+    }
+
+    @Test
+    void search_ShouldReturnSamePageFromBothEngines_WhenOffsetIsNotPageAligned() {
+        for (int[] page : new int[][]{{0, 4}, {3, 4}, {5, 2}, {7, 4}, {9, 4}, {10, 4}}) {
+            int from = page[0];
+            int size = page[1];
+            List<Long> expected = itemIds.subList(Math.min(from, itemIds.size()),
+                    Math.min(from + size, itemIds.size()));
+
+            assertEquals(expected, ids(databaseEngine.search(marker, from, size)), "database " + from);
+            assertEquals(expected, ids(indexEngine.search(marker, from, size)), "index " + from);
+        }
+    }
+
+    @Test
+    void searchAfter_ShouldReturnSamePageFromBothEngines() {
+        long afterId = itemIds.get(2);
+
+        List<Long> expected = itemIds.subList(3, 7);
+        assertEquals(expected, ids(databaseEngine.searchAfter(marker, afterId, 4)));
+        assertEquals(expected, ids(indexEngine.searchAfter(marker, afterId, 4)));
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).toList();
+    }
+}
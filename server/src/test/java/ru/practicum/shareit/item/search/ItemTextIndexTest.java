@@ -0,0 +1,96 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemTextIndexTest {
+
+    private ItemTextIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemTextIndex();
+        index.put(1L, "Дрель", "Простая дрель", true);
+        index.put(2L, "Отвертка", "Аккумуляторная отвертка", true);
+        index.put(3L, "Дрель ударная", "Мощная дрель с перфоратором", false);
+        index.put(4L, "Пила", "Ручная пила по дереву", true);
+    }
+
+    @Test
+    void search_ShouldMatchSubstringInNameOrDescription_WhenQueryIsLong() {
+        assertEquals(List.of(1L), index.search("дРелЬ"));
+        assertEquals(List.of(2L), index.search("аккум"));
+        assertEquals(List.of(4L), index.search("пила по"));
+    }
+
+    @Test
+    void search_ShouldMatchInsideTokens_WhenQueryIsShort() {
+        assertEquals(List.of(1L, 4L), index.search("ре"));
+        assertEquals(List.of(4L), index.search("по"));
+    }
+
+    @Test
+    void search_ShouldMatchShortQueryAcrossWordBoundary() {
+        index.put(5L, "Бит-набор", "Биты", true);
+
+        assertEquals(List.of(5L), index.search("т-"));
+        assertEquals(List.of(4L), index.search("а "));
+        assertEquals(List.of(1L, 2L, 5L), index.search("т"));
+    }
+
+    @Test
+    void search_ShouldForgetShortSubstrings_WhenItemIsRemoved() {
+        index.remove(4L);
+
+        assertEquals(List.of(1L), index.search("ре"));
+        assertTrue(index.search("по").isEmpty());
+    }
+
+    @Test
+    void search_ShouldReturnEmptyList_WhenNothingMatches() {
+        assertTrue(index.search("молоток").isEmpty());
+        assertTrue(index.search(" ").isEmpty());
+    }
+
+    @Test
+    void put_ShouldReplacePreviousVersion_WhenItemIsUpdated() {
+        index.put(1L, "Молоток", "Тяжелый молоток", true);
+        index.put(3L, "Дрель ударная", "Мощная дрель с перфоратором", true);
+
+        assertEquals(List.of(3L), index.search("дрель"));
+        assertEquals(List.of(1L), index.search("молот"));
+    }
+
+    @Test
+    void put_ShouldRemoveItemFromIndex_WhenItemBecomesUnavailable() {
+        index.put(2L, "Отвертка", "Аккумуляторная отвертка", false);
+
+        assertTrue(index.search("отвертка").isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void searchRanked_ShouldRankNameMatchesAboveDescriptionMatches() {
+        index.put(5L, "Набор бит", "Биты для дрели и шуруповерта", true);
+
+        assertEquals(List.of(1L, 5L), index.searchRanked("дрел", 10));
+    }
+
+    @Test
+    void searchRanked_ShouldReturnOnlyTopResults_WhenLimitIsSmallerThanMatches() {
+        index.put(5L, "Набор бит", "Биты для дрели и шуруповерта", true);
+        index.put(6L, "Дрель аккумуляторная", "Дрель для дома", true);
+
+        assertEquals(List.of(1L, 6L), index.searchRanked("дрел", 2));
+        assertTrue(index.searchRanked("дрел", 0).isEmpty());
+    }
+
+    @Test
+    void searchRanked_ShouldNotSizeHeapByLimit_WhenLimitIsHuge() {
+        assertEquals(List.of(1L), index.searchRanked("дрел", Integer.MAX_VALUE));
+    }
+}
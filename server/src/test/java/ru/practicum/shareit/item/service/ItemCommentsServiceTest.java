@@ -0,0 +1,69 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ItemCommentsServiceTest {
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User owner;
+    private User author;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = String.valueOf(System.nanoTime());
+        owner = userRepository.save(User.builder().name("owner").email("owner" + suffix + "@comments").build());
+        author = userRepository.save(User.builder().name("Анна").email("author" + suffix + "@comments").build());
+        item = itemRepository.save(Item.builder().name("Дрель").description("Ударная")
+                .isAvailable(true).owner(owner).build());
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.save(new Booking(null, now.minusDays(2), now.minusDays(1), item, author, Status.APPROVED));
+    }
+
+    @Test
+    void getItem_ShouldShowNewAuthorName_WhenViewWasCachedBeforeRename() {
+        itemService.addComment(item.getId(), author.getId(), new CommentDto(null, "Отличная дрель", null, null));
+        assertEquals(List.of("Анна"), authorNames());
+
+        userService.updateUser(author.getId(), new UserDto(null, "Анна Петрова", null));
+
+        assertEquals(List.of("Анна Петрова"), authorNames());
+        assertEquals(List.of("Анна Петрова"), itemService.getItemDetailsWithBookings(item.getId()).getComments()
+                .stream().map(CommentDto::getAuthorName).toList());
+    }
+
+    private List<String> authorNames() {
+        return itemService.getItem(item.getId(), owner.getId()).getComments().stream()
+                .map(CommentDto::getAuthorName)
+                .toList();
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.error.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "shareit.batch.rows-per-transaction=2")
+class ItemImportServiceTest {
+
+    @Autowired
+    private ItemImportService itemImportService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private ItemRequest request;
+    private String marker;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = String.valueOf(System.nanoTime());
+        marker = "метка" + suffix;
+        owner = userRepository.save(User.builder().name("shop").email("shop" + suffix + "@import").build());
+        User requestor = userRepository.save(User.builder().name("requestor")
+                .email("requestor" + suffix + "@import").build());
+        request = itemRequestRepository.save(ItemRequest.builder().description("Нужна пила")
+                .requestor(requestor).created(LocalDateTime.now()).build());
+    }
+
+    @Test
+    void importItems_ShouldImportNdjsonAndReportInvalidRows() throws IOException {
+        String body = String.join("\n",
+                "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}",
+                "{\"name\":\"\",\"description\":\"Без названия\",\"available\":true}",
+                "{\"name\":\"Пила\",\"description\":\"По запросу " + marker + "\",\"available\":true,\"requestId\":" + request.getId() + "}",
+                "{\"name\":\"Лобзик\",\"description\":\"Чужой запрос\",\"available\":true,\"requestId\":-1}",
+                "{\"name\":\"Рубанок\",\"description\":\"Ручной\",\"available\":\"maybe\"}",
+                "{\"name\":\"Молоток\",\"description\":\"Стальной\",\"available\":false}",
+                "");
+
+        ItemImportResultDto result = itemImportService.importItems(owner.getId(), stream(body));
+
+        assertEquals(3, result.getImported());
+        assertEquals(3, result.getFailed());
+        assertEquals(List.of(2L, 4L, 5L), result.getErrors().stream().map(ItemImportErrorDto::getRow).sorted().toList());
+        List<ItemDto> items = itemService.getItemsByOwner(owner.getId());
+        assertEquals(List.of("Дрель", "Пила", "Молоток"), items.stream().map(ItemDto::getName).toList());
+        assertEquals(request.getId(), items.get(1).getRequestId());
+        assertEquals(List.of("Пила"), itemService.searchItems(marker, 0, 10).stream().map(ItemDto::getName).toList());
+    }
+
+    @Test
+    void importItems_ShouldAcceptJsonArrayAndStopAtMalformedJson() throws IOException {
+        String body = "[{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}," +
+                "{\"name\":\"Пила\",\"description\":\"Ручная\",\"available\":true}," +
+                "{\"name\":\"Сломано\",";
+
+        ItemImportResultDto result = itemImportService.importItems(owner.getId(), stream(body));
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(3, result.getErrors().get(0).getRow());
+        assertEquals(2, itemRepository.findByOwnerId(owner.getId()).size());
+    }
+
+    @Test
+    void importItems_ShouldApplyItemDtoConstraints() throws IOException {
+        String body = String.join("\n",
+                "{\"name\":\"Дрель\",\"description\":\"" + "д".repeat(200) + "\",\"available\":true}",
+                "{\"name\":\"Пила\",\"description\":\"" + "п".repeat(201) + "\",\"available\":true}",
+                "{\"name\":\"Молоток\",\"description\":\" \",\"available\":true}",
+                "{\"name\":\"Рубанок\",\"description\":\"Ручной\"}");
+
+        ItemImportResultDto result = itemImportService.importItems(owner.getId(), stream(body));
+
+        assertEquals(1, result.getImported());
+        assertEquals(List.of(
+                        new ItemImportErrorDto(2, "Длина описания должна до 200 символов"),
+                        new ItemImportErrorDto(3, "Описание не может быть пустым"),
+                        new ItemImportErrorDto(4, "Поле доступности вещи не может быть пустым")),
+                result.getErrors());
+    }
+
+    @Test
+    void importItems_ShouldRejectUnknownUser() {
+        assertThrows(NotFoundException.class, () -> itemImportService.importItems(-1L, stream("[]")));
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.error.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchPageDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"shareit.search.max-page-size=3", "shareit.search.max-ranked-results=5"})
+class ItemSearchServiceTest {
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private String marker;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = String.valueOf(System.nanoTime());
+        // Уникальное слово отделяет вещи теста от вещей других тестов в общей базе
+        marker = "метка" + suffix;
+        owner = userRepository.save(User.builder().name("owner").email("owner" + suffix + "@search").build());
+    }
+
+    @Test
+    void searchItemsRanked_ShouldRankNameMatchesFirst_WhenTextHasUpperCase() {
+        Item inDescription = item("Набор бит", "Биты " + marker);
+        Item inName = item("Дрель " + marker, "Ударная");
+
+        List<ItemDto> items = itemService.searchItemsRanked(marker.toUpperCase(), 0, 10);
+
+        assertEquals(List.of(inName.getId(), inDescription.getId()), ids(items));
+    }
+
+    @Test
+    void searchItemsRanked_ShouldRejectPageBeyondRankedWindow() {
+        item("Дрель " + marker, "Ударная");
+
+        assertThrows(ValidationException.class, () -> itemService.searchItemsRanked(marker, 5, 3));
+        assertThrows(ValidationException.class, () -> itemService.searchItemsRanked(marker, 1_000_000_000, 3));
+        assertThrows(ValidationException.class,
+                () -> itemService.searchItemsRanked(marker, Integer.MAX_VALUE - 1, 3));
+    }
+
+    @Test
+    void searchItemsRanked_ShouldCutLastPageAtRankedWindow() {
+        for (int i = 0; i < 7; i++) {
+            item("Дрель " + marker, "Ударная " + i);
+        }
+
+        assertEquals(3, itemService.searchItemsRanked(marker, 0, 10).size());
+        assertEquals(2, itemService.searchItemsRanked(marker, 3, 3).size());
+        assertEquals(1, itemService.searchItemsRanked(marker, 4, 3).size());
+    }
+
+    @Test
+    void searchItems_ShouldStartPageAtExactOffset() {
+        List<Long> all = items(7);
+
+        assertEquals(all.subList(2, 5), ids(itemService.searchItems(marker, 2, 3)));
+        // size ограничен max-page-size=3, смещение при этом не округляется до границы страницы
+        assertEquals(all.subList(4, 7), ids(itemService.searchItems(marker, 4, 10)));
+        assertEquals(all.subList(6, 7), ids(itemService.searchItems(marker, 6, 3)));
+        assertTrue(itemService.searchItems(marker, 7, 3).isEmpty());
+    }
+
+    @Test
+    void searchItemsAfter_ShouldWalkAllPagesWithCursor() {
+        List<Long> all = items(7);
+
+        ItemSearchPageDto first = itemService.searchItemsAfter(marker, null, 3);
+        ItemSearchPageDto second = itemService.searchItemsAfter(marker, first.getNextCursor(), 3);
+        ItemSearchPageDto last = itemService.searchItemsAfter(marker, second.getNextCursor(), 3);
+
+        assertEquals(all.subList(0, 3), ids(first.getItems()));
+        assertEquals(all.subList(3, 6), ids(second.getItems()));
+        assertEquals(all.subList(6, 7), ids(last.getItems()));
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    void searchItemsAfter_ShouldRejectMalformedCursor() {
+        assertThrows(ValidationException.class, () -> itemService.searchItemsAfter(marker, "not-a-cursor", 3));
+        String foreign = Base64.getUrlEncoder().encodeToString("booking:1".getBytes(StandardCharsets.UTF_8));
+        assertThrows(ValidationException.class, () -> itemService.searchItemsAfter(marker, foreign, 3));
+    }
+
+    @Test
+    void searchItems_ShouldRejectInvalidPage() {
+        assertThrows(ValidationException.class, () -> itemService.searchItems(marker, -1, 3));
+        assertThrows(ValidationException.class, () -> itemService.searchItems(marker, 0, 0));
+    }
+
+    private List<Long> items(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(item("Дрель " + marker, "Ударная " + i).getId());
+        }
+        return ids;
+    }
+
+    private Item item(String name, String description) {
+        return itemRepository.save(Item.builder().name(name).description(description)
+                .isAvailable(true).owner(owner).build());
+    }
+
+    private static List<Long> ids(List<ItemDto> items) {
+        return items.stream().map(ItemDto::getId).toList();
+    }
+}
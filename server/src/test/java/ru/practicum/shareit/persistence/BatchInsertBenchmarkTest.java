@@ -0,0 +1,82 @@
+package ru.practicum.shareit.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Скорость массовой загрузки бронирований через BatchWriter.
+ * Запуск: mvn test -pl server -Dtest=BatchInsertBenchmarkTest -Dshareit.benchmark=true
+ */
+@Slf4j
+@SpringBootTest
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+class BatchInsertBenchmarkTest {
+    private static final int BOOKINGS = 1_000_000;
+    private static final int ITEMS = 1_000;
+
+    @Autowired
+    private BatchWriter batchWriter;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void insertMillionBookings() {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@batch-benchmark").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker@batch-benchmark").build());
+        Item[] items = new Item[ITEMS];
+        for (int i = 0; i < ITEMS; i++) {
+            items[i] = Item.builder().name("Вещь " + i).description("Для загрузки").isAvailable(true).owner(owner).build();
+        }
+        batchWriter.persistAll(List.of(items));
+        long before = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings", Long.class);
+
+        LocalDateTime base = LocalDateTime.of(2050, 1, 1, 0, 0);
+        // Бронирования создаются на лету, чтобы в памяти не держать миллион объектов
+        Iterator<Booking> bookings = new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < BOOKINGS;
+            }
+
+            @Override
+            public Booking next() {
+                int i = next++;
+                LocalDateTime start = base.plusHours(2L * (i / ITEMS));
+                return new Booking(null, start, start.plusHours(1), items[i % ITEMS], booker, Status.WAITING);
+            }
+        };
+
+        long started = System.nanoTime();
+        long written = batchWriter.persistAll(bookings, chunk -> {
+        });
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertEquals(BOOKINGS, written);
+        assertEquals(before + BOOKINGS, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings", Long.class));
+        log.info("Inserted {} bookings in {} ms: {} rows/s", BOOKINGS, elapsedMillis,
+                BOOKINGS * 1000L / Math.max(elapsedMillis, 1));
+    }
+}
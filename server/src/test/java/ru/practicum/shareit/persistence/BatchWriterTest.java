@@ -0,0 +1,69 @@
+package ru.practicum.shareit.persistence;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn"
+})
+class BatchWriterTest {
+    private static final int ROWS = 240;
+
+    @Autowired
+    private BatchWriter batchWriter;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void persistAll_ShouldInsertInBatchesWithPooledIds() {
+        String suffix = String.valueOf(System.nanoTime());
+        User owner = userRepository.save(User.builder().name("owner").email("owner" + suffix + "@batch").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker" + suffix + "@batch").build());
+        Item item = itemRepository.save(Item.builder().name("Дрель").description("Ударная")
+                .isAvailable(true).owner(owner).build());
+        LocalDateTime base = LocalDateTime.of(2040, 1, 1, 0, 0);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            bookings.add(new Booking(null, base.plusHours(2L * i), base.plusHours(2L * i + 1), item, booker,
+                    Status.WAITING));
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long written = batchWriter.persistAll(bookings);
+
+        assertEquals(ROWS, written);
+        assertEquals(ROWS, statistics.getEntityInsertCount());
+        // Без пакетирования и блоков id вышло бы по запросу на каждую строку
+        assertTrue(statistics.getPrepareStatementCount() <= 2L * ROWS / 50 + 2,
+                () -> "Statements: " + statistics.getPrepareStatementCount());
+        assertTrue(bookings.stream().map(Booking::getId).allMatch(Objects::nonNull));
+        assertEquals(ROWS, bookings.stream().map(Booking::getId).distinct().count());
+        assertEquals(ROWS, bookingRepository.findAllById(bookings.stream().map(Booking::getId).toList()).size());
+    }
+}
@@ -0,0 +1,153 @@
+package ru.practicum.shareit.schema;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.pointer.ItemBookingPointers;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.cache.UserCache;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Связи сущностей загружаются лениво, поэтому число запросов на обращение определяется только
+ * выборками самого сервиса. Числа совпадают с таблицей в README.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn"
+})
+class FetchPlanTest {
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserCache userCache;
+    @Autowired
+    private ItemBookingPointers itemBookingPointers;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+    private ItemRequest request;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String suffix = String.valueOf(System.nanoTime());
+        owner = userRepository.save(User.builder().name("owner").email("owner" + suffix + "@fetch").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker" + suffix + "@fetch").build());
+        request = itemRequestRepository.save(ItemRequest.builder().description("Нужна дрель")
+                .requestor(booker).created(LocalDateTime.now()).build());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 3; i++) {
+            Item item = itemRepository.save(Item.builder().name("Дрель " + i).description("Ударная")
+                    .isAvailable(true).owner(owner).request(request).build());
+            booking = bookingRepository.save(new Booking(null, now.minusDays(3), now.minusDays(2), item, booker,
+                    Status.APPROVED));
+            // Как после подтверждения бронирования
+            itemBookingPointers.refresh(item.getId());
+        }
+    }
+
+    @Test
+    void getBooking_ShouldFetchItemAndBookerInOneStatement() {
+        bookingService.getBooking(booker.getId(), booking.getId());
+
+        statistics.clear();
+        BookingOutDto dto = bookingService.getBooking(booker.getId(), booking.getId());
+
+        // Бронирование с вещью и арендатором, затем указатели вещи
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(booker.getEmail(), dto.getBooker().getEmail());
+        assertEquals(owner.getId(), dto.getItem().getOwnerId());
+        assertEquals(request.getId(), dto.getItem().getRequestId());
+    }
+
+    @Test
+    void getItemsByOwner_ShouldNotLoadOwnersOrRequests() {
+        itemService.getItemsByOwner(owner.getId());
+
+        statistics.clear();
+        List<ItemDto> items = itemService.getItemsByOwner(owner.getId());
+
+        // Вещи, указатели бронирований и комментарии
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(3, items.size());
+        assertTrue(items.stream().allMatch(item -> request.getId().equals(item.getRequestId())));
+    }
+
+    @Test
+    void getItem_ShouldLoadCommentAuthorsInOneStatement_WhenUserCacheIsCold() {
+        Long itemId = booking.getItem().getId();
+        LocalDateTime now = LocalDateTime.now();
+        List<User> authors = List.of(booker,
+                userRepository.save(User.builder().name("second").email("second" + System.nanoTime() + "@fetch").build()),
+                userRepository.save(User.builder().name("third").email("third" + System.nanoTime() + "@fetch").build()));
+        for (User author : authors) {
+            if (author != booker) {
+                bookingRepository.save(new Booking(null, now.minusDays(3), now.minusDays(2), booking.getItem(),
+                        author, Status.APPROVED));
+            }
+            itemService.addComment(itemId, author.getId(), new CommentDto(null, "Хорошая дрель", null, null));
+        }
+        itemService.getItem(itemId, owner.getId());
+        authors.forEach(author -> userCache.invalidate(author.getId()));
+
+        statistics.clear();
+        List<CommentDto> comments = itemService.getItem(itemId, owner.getId()).getComments();
+
+        // Карточка и бронирования из кэша, все три автора - одним запросом
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(List.of("booker", "second", "third"), comments.stream().map(CommentDto::getAuthorName).toList());
+    }
+
+    @Test
+    void findAllByUserId_ShouldNotLoadRequestors() {
+        itemRequestService.findAllByUserId(booker.getId());
+
+        statistics.clear();
+        List<ItemRequestDto> requests = itemRequestService.findAllByUserId(booker.getId());
+
+        // Запросы пользователя и вещи, созданные по ним
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(3, requests.get(0).getItems().size());
+    }
+}
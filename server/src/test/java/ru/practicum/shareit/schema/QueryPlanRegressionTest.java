@@ -0,0 +1,65 @@
+package ru.practicum.shareit.schema;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Основные запросы репозиториев не должны сводиться к полному просмотру таблицы,
+ * а составные индексы миграции V3 - терять столбцы или менять их порядок.
+ * Оптимизатор H2 не учитывает селективность второго столбца, поэтому конкретный индекс в плане не проверяется.
+ */
+@SpringBootTest
+class QueryPlanRegressionTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "SELECT * FROM bookings b WHERE b.booker_id = 1 ORDER BY b.start_date DESC",
+            "SELECT * FROM bookings b WHERE b.booker_id = 1 AND b.status = 'WAITING' ORDER BY b.start_date DESC",
+            "SELECT * FROM bookings b WHERE b.item_id = 1 AND b.start_date > NOW() ORDER BY b.start_date",
+            "SELECT * FROM bookings b WHERE b.item_id = 1 AND b.end_date < NOW() ORDER BY b.end_date DESC",
+            "SELECT * FROM bookings b WHERE b.item_id = 1 AND b.status = 'APPROVED' ORDER BY b.start_date",
+            "SELECT 1 FROM bookings b WHERE b.item_id = 1 AND b.booker_id = 2 AND b.end_date < NOW()",
+            "SELECT b.* FROM bookings b JOIN items i ON i.id = b.item_id WHERE i.owner_id = 1 ORDER BY b.start_date DESC",
+            "SELECT * FROM items i WHERE i.owner_id = 1",
+            "SELECT * FROM items i WHERE i.request_id = 1",
+            "SELECT * FROM comments c WHERE c.item_id IN (1, 2, 3) ORDER BY c.id",
+            "SELECT * FROM item_requests r WHERE r.requestor_id = 1 ORDER BY r.created DESC"
+    })
+    void query_ShouldNotScanWholeTable(String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+
+        assertNotNull(plan);
+        assertFalse(plan.contains("tableScan"), () -> "Full table scan in plan:\n" + plan);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "IDX_BOOKINGS_ITEM_START | ITEM_ID,START_DATE",
+            "IDX_BOOKINGS_ITEM_END | ITEM_ID,END_DATE",
+            "IDX_BOOKINGS_ITEM_STATUS_START | ITEM_ID,STATUS,START_DATE",
+            "IDX_BOOKINGS_BOOKER_START | BOOKER_ID,START_DATE",
+            "IDX_BOOKINGS_BOOKER_STATUS_START | BOOKER_ID,STATUS,START_DATE",
+            "IDX_BOOKINGS_BOOKER_ITEM_END | BOOKER_ID,ITEM_ID,END_DATE",
+            "IDX_ITEMS_OWNER | OWNER_ID,ID",
+            "IDX_ITEMS_REQUEST | REQUEST_ID",
+            "IDX_COMMENTS_ITEM | ITEM_ID,ID",
+            "IDX_ITEM_REQUESTS_REQUESTOR_CREATED | REQUESTOR_ID,CREATED",
+            "IDX_ITEM_REQUESTS_CREATED | CREATED"
+    })
+    void migration_ShouldCreateCompositeIndex(String index, String columns) {
+        List<String> actual = jdbcTemplate.queryForList("SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS " +
+                "WHERE INDEX_NAME = ? ORDER BY ORDINAL_POSITION", String.class, index);
+
+        assertEquals(List.of(columns.split(",")), actual);
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.user.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import ru.practicum.shareit.user.cache.impl.LocalUserInvalidationBus;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private LocalUserInvalidationBus invalidationBus;
+    private UserCache userCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        invalidationBus = new LocalUserInvalidationBus();
+        userCache = new UserCache(userRepository, invalidationBus, new UserCacheProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void exists_ShouldCacheUnknownId() {
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertFalse(userCache.exists(1L));
+        assertFalse(userCache.exists(1L));
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void findAll_ShouldLoadMissingUsersInOneQuery() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(new User(1L, "Иван", "ivan@example.com")));
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of(new User(2L, "Анна", "anna@example.com")));
+        userCache.find(1L);
+
+        Map<Long, CachedUser> users = userCache.findAll(Set.of(1L, 2L, 3L));
+        userCache.findAll(Set.of(1L, 2L, 3L));
+
+        assertEquals(Map.of(1L, new CachedUser(1L, "Иван", "ivan@example.com"),
+                2L, new CachedUser(2L, "Анна", "anna@example.com")), users);
+        // Третьего пользователя нет в базе, и его отсутствие тоже кэшируется
+        verify(userRepository, times(1)).findAllById(anyIterable());
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void invalidate_ShouldReloadUser_AfterCreationOrUpdate() {
+        when(userRepository.findById(1L)).thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new User(1L, "Иван", "ivan@example.com")));
+
+        assertFalse(userCache.exists(1L));
+        userCache.invalidate(1L);
+
+        assertEquals(Optional.of(new CachedUser(1L, "Иван", "ivan@example.com")), userCache.find(1L));
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void publish_ShouldDropEntry_WhenAnotherInstanceChangedUser() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(new User(1L, "Иван", "ivan@example.com")));
+        userCache.find(1L);
+
+        invalidationBus.publish(1L);
+        userCache.find(1L);
+
+        verify(userRepository, times(2)).findById(1L);
+    }
+}